@@ -11,11 +11,13 @@ const BookDetail = () => {
   const [book, setBook] = useState(null);
   const [loading, setLoading] = useState(true);
   const [quantity, setQuantity] = useState(1);
+  const [relatedBooks, setRelatedBooks] = useState([]);
   
   const { addToCart } = useCart();
 
   useEffect(() => {
     fetchBook();
+    fetchRelated();
   }, [id]);
 
   const fetchBook = async () => {
@@ -30,6 +32,16 @@ const BookDetail = () => {
     }
   };
 
+  const fetchRelated = async () => {
+    try {
+      const response = await itemsAPI.getRelated(id);
+      setRelatedBooks(response.data || []);
+    } catch (error) {
+      // Recommendations are optional - keep the page usable without them
+      setRelatedBooks([]);
+    }
+  };
+
   const handleAddToCart = () => {
     if (book && book.stock >= quantity) {
       addToCart({
@@ -231,11 +243,41 @@ const BookDetail = () => {
 
         {/* Related Books Section */}
         <div className="mt-12">
-          <h2 className="text-2xl font-bold text-gray-900 mb-6">You might also like</h2>
-          <div className="text-center py-8 text-gray-500">
-            <BookOpen className="h-12 w-12 mx-auto mb-2 opacity-50" />
-            <p>Related books will be displayed here</p>
-          </div>
+          <h2 className="text-2xl font-bold text-gray-900 mb-6">Customers also bought</h2>
+          {relatedBooks.length > 0 ? (
+            <div className="grid grid-cols-2 sm:grid-cols-3 lg:grid-cols-6 gap-4">
+              {relatedBooks.map((related) => (
+                <button
+                  key={related.id}
+                  onClick={() => navigate(`/books/${related.id}`)}
+                  className="bg-white rounded-lg shadow hover:shadow-lg transition-shadow text-left overflow-hidden"
+                >
+                  <div className="aspect-w-3 aspect-h-4 bg-gradient-to-br from-blue-100 to-blue-200">
+                    {related.imageUrl ? (
+                      <img
+                        src={related.imageUrl}
+                        alt={related.name}
+                        loading="lazy"
+                        className="w-full h-40 object-cover"
+                      />
+                    ) : (
+                      <div className="w-full h-40 flex items-center justify-center">
+                        <BookOpen className="h-12 w-12 text-blue-600" />
+                      </div>
+                    )}
+                  </div>
+                  <div className="p-3">
+                    <p className="text-sm font-medium text-gray-900 line-clamp-2">{related.name}</p>
+                  </div>
+                </button>
+              ))}
+            </div>
+          ) : (
+            <div className="text-center py-8 text-gray-500">
+              <BookOpen className="h-12 w-12 mx-auto mb-2 opacity-50" />
+              <p>No related books yet</p>
+            </div>
+          )}
         </div>
       </div>
     </div>
@@ -174,6 +174,8 @@ const Books = () => {
           return a.price - b.price;
         case 'stock':
           return b.stock - a.stock;
+        case 'bestselling':
+          return (b.unitsSold || 0) - (a.unitsSold || 0);
         default:
           return 0;
       }
@@ -279,6 +281,7 @@ const Books = () => {
                 <option value="name">Sort by Name</option>
                 <option value="price">Price: Low to High</option>
                 <option value="stock">Stock: High to Low</option>
+                <option value="bestselling">Bestselling</option>
               </select>
               
               <select
@@ -393,11 +396,17 @@ const BookCard = ({ book, handleAddToCart }) => (
   <div className="bg-white rounded-lg shadow-md hover:shadow-xl transition-all duration-300 overflow-hidden hover-lift group relative">
     <div className="aspect-w-3 aspect-h-4 bg-gray-200 relative overflow-hidden">
       <img
-        src={book.imageUrl || `https://via.placeholder.com/240x320/f3f4f6/6b7280?text=${encodeURIComponent(book.name)}`}
+        src={book.imageVariants?.w320 || book.imageUrl || `https://via.placeholder.com/240x320/f3f4f6/6b7280?text=${encodeURIComponent(book.name)}`}
         alt={book.name}
+        loading="lazy"
         className="w-full h-40 object-cover transition-transform duration-300 group-hover:scale-110"
         onError={(e) => {
-          e.target.src = `https://via.placeholder.com/300x400/f3f4f6/6b7280?text=${encodeURIComponent(book.name)}`;
+          // Thumbnail may not be generated yet - fall back to the original, then the placeholder
+          if (book.imageUrl && e.target.src !== book.imageUrl) {
+            e.target.src = book.imageUrl;
+          } else {
+            e.target.src = `https://via.placeholder.com/300x400/f3f4f6/6b7280?text=${encodeURIComponent(book.name)}`;
+          }
         }}
       />
       
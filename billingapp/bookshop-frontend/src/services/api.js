@@ -63,6 +63,7 @@ export const itemsAPI = {
   getByCategory: (category) => api.get(`/items?category=${category}`),
   search: (query, category) => api.get(`/items?q=${query}&category=${category || ''}`),
   getCategories: () => api.get('/items/categories'),
+  getRelated: (id, limit = 6) => api.get(`/items/${id}/related`, { params: { limit } }),
 };
 
 // Bills API calls (using different base URL)
@@ -0,0 +1,43 @@
+package com.pahanaedu.billingapp.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Defers beans that no request on the checkout path needs (springdoc's OpenAPI model, scanners and
+ * UI controllers by default) until first use, instead of making every start pay for them.
+ * Applies to bean definitions declared by classes under app.startup.lazy-packages; everything else,
+ * including scheduled jobs and listeners, is still created eagerly.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DeferredInitializationConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor deferNonCriticalBeans(Environment env) {
+        List<String> packages = List.of(env.getProperty("app.startup.lazy-packages", String[].class,
+                new String[]{"org.springdoc."}));
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String declaringClass = declaringClassName(definition);
+                if (declaringClass != null && packages.stream().anyMatch(declaringClass::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // @Bean methods carry no bean class name; attribute them to the class that declares the method
+    private static String declaringClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
@@ -0,0 +1,63 @@
+package com.pahanaedu.billingapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Second-level cache regions for the reference entities (Item, Role, User.roles).
+ * Each region is a bounded Caffeine cache; entity saves update it on commit and JPQL bulk
+ * updates on an entity (e.g. the sales counters on Item) evict that entity's region.
+ * Hit/miss/put counts per region: hibernate.second.level.cache.* in /actuator/metrics.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String ITEM_REGION = "item";
+    public static final String ROLE_REGION = "role";
+    public static final String USER_ROLES_REGION = "user-roles";
+
+    // Own provider instance (not the static Caching registry) so every application context
+    // gets its own cache manager and closing one context never closes another's caches
+    @Bean(destroyMethod = "close")
+    public CaffeineCachingProvider hibernateCachingProvider() {
+        return new CaffeineCachingProvider();
+    }
+
+    @Bean
+    public CacheManager hibernateCacheManager(CaffeineCachingProvider provider,
+                                              @Value("${app.cache.item.max-size:5000}") long itemMaxSize,
+                                              @Value("${app.cache.role.max-size:100}") long roleMaxSize,
+                                              @Value("${app.cache.user-roles.max-size:10000}") long userRolesMaxSize,
+                                              @Value("${app.cache.ttl:PT1H}") Duration ttl) {
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        cacheManager.createCache(ITEM_REGION, region(itemMaxSize, ttl));
+        cacheManager.createCache(ROLE_REGION, region(roleMaxSize, ttl));
+        cacheManager.createCache(USER_ROLES_REGION, region(userRolesMaxSize, ttl));
+        return cacheManager;
+    }
+
+    // Hand the prepared manager to Hibernate's JCache region factory (missing_cache_strategy=fail
+    // in application.properties, so an unconfigured region is a startup error, not an unbounded cache)
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxSize));
+        // ttl only bounds staleness from writes made outside this application (other nodes, SQL)
+        config.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        config.setStatisticsEnabled(true);
+        return config;
+    }
+}
@@ -0,0 +1,92 @@
+package com.pahanaedu.billingapp.config;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Serves /uploads/** with validators and cache headers suited to each file:
+ * content-hashed uploads are immutable for a year; thumbnails (regenerated in place when
+ * missing) and older UUID-named files get a size + mtime ETag and are cached for an hour, then
+ * revalidated. Conditional GETs are answered with 304 before the file is opened, with the same
+ * Cache-Control and Vary as a full response; byte ranges and precompressed siblings are handled
+ * by the base class.
+ */
+public class UploadResourceHandler extends ResourceHttpRequestHandler {
+
+    private static final Pattern CONTENT_HASHED = Pattern.compile("^[0-9a-f]{64}\\.[a-z]+$");
+
+    // handleRequest resolves the file once; the base class picks it up from here
+    private static final String RESOURCE_ATTRIBUTE = UploadResourceHandler.class.getName() + ".resource";
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl REVALIDATE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
+    public UploadResourceHandler() {
+        // Last-Modified is checked together with the ETag in handleRequest
+        setUseLastModified(false);
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+            Resource resource = getResource(request);
+            if (resource != null && resource.isReadable()) {
+                String filename = resource.getFilename();
+                boolean hashed = filename != null && CONTENT_HASHED.matcher(filename).matches();
+                response.setHeader(HttpHeaders.CACHE_CONTROL, (hashed ? IMMUTABLE : REVALIDATE).getHeaderValue());
+                if (resource instanceof HttpResource httpResource) {
+                    // Vary (and Content-Encoding) of a precompressed sibling, on the 304 as well
+                    httpResource.getResponseHeaders().forEach(
+                            (name, values) -> response.setHeader(name, String.join(", ", values)));
+                }
+
+                ServletWebRequest webRequest = new ServletWebRequest(request, response);
+                if (webRequest.checkNotModified(etagFor(resource, filename, hashed), resource.lastModified())) {
+                    return; // 304, headers already written
+                }
+            }
+        }
+        super.handleRequest(request, response);
+    }
+
+    @Override
+    protected Resource getResource(HttpServletRequest request) throws IOException {
+        if (request.getAttribute(RESOURCE_ATTRIBUTE) instanceof Resource resolved) {
+            return resolved;
+        }
+        Resource resource = super.getResource(request);
+        if (resource != null) {
+            request.setAttribute(RESOURCE_ATTRIBUTE, resource);
+        }
+        return resource;
+    }
+
+    // Strong validator: the content hash when the name carries one, otherwise size + mtime.
+    // Encoded (.gz/.br) representations get their own tag.
+    private static String etagFor(Resource resource, String filename, boolean hashed) throws IOException {
+        String tag;
+        if (hashed) {
+            tag = filename.substring(0, 64);
+        } else {
+            tag = Long.toHexString(resource.contentLength()) + "-" + Long.toHexString(resource.lastModified());
+        }
+        if (resource instanceof HttpResource httpResource) {
+            String encoding = httpResource.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (encoding != null) tag += "-" + encoding;
+        }
+        return "\"" + tag + "\"";
+    }
+}
@@ -1,9 +1,23 @@
 package com.pahanaedu.billingapp.config;
 
+import jakarta.servlet.MultipartConfigElement;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -11,10 +25,43 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
-    @Override
-    public void addResourceHandlers(@org.springframework.lang.NonNull ResourceHandlerRegistry registry) {
-        // Serve uploaded images
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir + "/");
+    @Value("${app.upload.incoming-dir:${app.upload.dir:uploads}-incoming}")
+    private String incomingDir;
+
+    @Value("${app.upload.max-file-size:5MB}")
+    private DataSize maxFileSize;
+
+    @Value("${app.upload.max-request-size:6MB}")
+    private DataSize maxRequestSize;
+
+    // Serve uploaded images through a dedicated handler so each file gets the right
+    // validators and cache lifetime (see UploadResourceHandler)
+    @Bean
+    public UploadResourceHandler uploadResourceHandler() {
+        UploadResourceHandler handler = new UploadResourceHandler();
+        String root = Paths.get(uploadDir).toAbsolutePath().normalize() + "/";
+        handler.setLocations(List.of(new FileSystemResource(root)));
+        handler.setResourceResolvers(List.of(new EncodedResourceResolver(), new PathResourceResolver()));
+        return handler;
+    }
+
+    @Bean
+    public SimpleUrlHandlerMapping uploadHandlerMapping(UploadResourceHandler uploadResourceHandler) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(Map.of("/uploads/**", uploadResourceHandler));
+        mapping.setOrder(-1); // ahead of Boot's catch-all static resource mapping
+        return mapping;
+    }
+
+    // Multipart limits are enforced by the container while parsing, before any controller runs.
+    // Parts are always spooled to disk next to the upload dir so storing one is a rename.
+    @Bean
+    public MultipartConfigElement multipartConfigElement() throws IOException {
+        Path incoming = Files.createDirectories(Paths.get(incomingDir).toAbsolutePath().normalize());
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(incoming.toString());
+        factory.setMaxFileSize(maxFileSize);
+        factory.setMaxRequestSize(maxRequestSize);
+        factory.setFileSizeThreshold(DataSize.ofBytes(0));
+        return factory.createMultipartConfig();
     }
 }
@@ -1,12 +1,14 @@
 package com.pahanaedu.billingapp.controller;
 
 import com.pahanaedu.billingapp.dto.UserProfileDTO;
+import com.pahanaedu.billingapp.dto.UserPurchaseSummaryDTO;
 import com.pahanaedu.billingapp.model.Role;
 import com.pahanaedu.billingapp.model.User;
 import com.pahanaedu.billingapp.service.BillService;
 import com.pahanaedu.billingapp.repository.RoleRepository;
 import com.pahanaedu.billingapp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/admin")
@@ -46,8 +49,8 @@ public class AdminController {
         }
         
         // Get statistics for admin dashboard
-        long totalUsers = userService.getAllUsers().size();
-        long totalBills = billService.getAllBills().size();
+        long totalUsers = userService.countUsers();
+        long totalBills = billService.countBills();
         
         model.addAttribute("currentUser", currentUser);
         model.addAttribute("totalUsers", totalUsers);
@@ -58,7 +61,11 @@ public class AdminController {
 
     // User Management - List all users
     @GetMapping("/users")
-    public String listUsers(Model model) {
+    public String listUsers(@RequestParam(value = "q", required = false) String q,
+                            @RequestParam(value = "sort", defaultValue = "id") String sort,
+                            @RequestParam(value = "page", defaultValue = "0") int page,
+                            @RequestParam(value = "size", defaultValue = "25") int size,
+                            Model model) {
         // Get current authenticated user
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -72,8 +79,16 @@ public class AdminController {
             return "redirect:/?error=access_denied";
         }
         
-        List<User> users = userService.getAllUsers();
-        model.addAttribute("users", users);
+        // one grouped query for the page (bill count, spend, last purchase) + one for its users' roles
+        Page<UserPurchaseSummaryDTO> users = userService.searchUserSummaries(
+                q, sort, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        Map<Long, User> usersById = userService.findUsersById(
+                users.getContent().stream().map(UserPurchaseSummaryDTO::userId).toList());
+        model.addAttribute("users", users.getContent());
+        model.addAttribute("usersById", usersById);
+        model.addAttribute("usersPage", users);
+        model.addAttribute("q", q);
+        model.addAttribute("sort", sort);
         model.addAttribute("currentUser", currentUser);
         
         return "admin/users";
@@ -6,16 +6,24 @@ import com.pahanaedu.billingapp.dto.RegisterRequest;
 import com.pahanaedu.billingapp.dto.UserDto;
 import com.pahanaedu.billingapp.model.Role;
 import com.pahanaedu.billingapp.model.User;
-import com.pahanaedu.billingapp.repository.UserRepository;
+import com.pahanaedu.billingapp.security.AccountDetails;
 import com.pahanaedu.billingapp.security.CustomUserDetailsService;
+import com.pahanaedu.billingapp.security.TokenAuthenticationFilter;
+import com.pahanaedu.billingapp.security.TokenService;
 import com.pahanaedu.billingapp.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContext;
@@ -25,6 +33,7 @@ import org.springframework.security.web.authentication.logout.SecurityContextLog
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Set;
 
 @RestController
@@ -35,7 +44,11 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final CustomUserDetailsService userDetailsService;
-    private final UserRepository userRepository;
+    private final TokenService tokenService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.token.cookie-secure:false}")
+    private boolean secureCookie;
 
     // Helper: normalize role to ADMIN or USER for the frontend
     private static String simplifyRoleFromAuthorities(Iterable<? extends GrantedAuthority> authorities) {
@@ -57,24 +70,49 @@ public class AuthController {
         return "USER";
     }
 
+    // Helper: session mode stores the context in the HttpSession (JSESSIONID);
+    // stateless mode hands out a signed token instead and keeps nothing on the server
+    private void establishLogin(Authentication auth, Long userId, HttpServletRequest request, HttpServletResponse response) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(auth);
+        SecurityContextHolder.setContext(context);
+
+        if (tokenService.isStateless()) {
+            List<String> roles = auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+            String token = tokenService.issue(userId, auth.getName(), roles);
+            response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie(token, tokenService.getTtl().toSeconds()).toString());
+            response.setHeader("X-Auth-Token", token);
+        } else {
+            request.getSession(true).setAttribute(
+                    HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context
+            );
+        }
+    }
+
+    private ResponseCookie tokenCookie(String value, long maxAgeSeconds) {
+        return ResponseCookie.from(TokenAuthenticationFilter.COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAgeSeconds)
+                .build();
+    }
+
     // ---------- REGISTER (auto-login + return UserDto) ----------
     @PostMapping("/register")
-    public ResponseEntity<UserDto> register(@RequestBody RegisterRequest req, HttpServletRequest request) {
+    public ResponseEntity<UserDto> register(@RequestBody RegisterRequest req, HttpServletRequest request,
+                                            HttpServletResponse response) {
         // create the user with ROLE_USER
         User created = userService.register(
                 req.getUsername(), req.getPassword(), req.getFullName(), req.getEmail(), req.getPhone(), "ROLE_USER"
         );
 
-        // auto-login the newly created user (creates JSESSIONID)
+        // auto-login the newly created user (JSESSIONID or signed token)
         Authentication auth = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword())
         );
-        SecurityContext context = SecurityContextHolder.createEmptyContext();
-        context.setAuthentication(auth);
-        SecurityContextHolder.setContext(context);
-        request.getSession(true).setAttribute(
-                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context
-        );
+        establishLogin(auth, created.getId(), request, response);
 
         // return full UserDto so frontend can hydrate /account immediately
         String role = simplifyRoleFromRoles(created.getRoles());
@@ -89,23 +127,30 @@ public class AuthController {
         return ResponseEntity.ok(dto);
     }
 
-    // ---------- LOGIN (persist session + return UserDto) ----------
+    // ---------- LOGIN (persist session or issue token + return UserDto) ----------
     @PostMapping("/login")
-    public ResponseEntity<UserDto> login(@RequestBody LoginRequest req, HttpServletRequest request) {
-        Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword())
-        );
-
-        SecurityContext context = SecurityContextHolder.createEmptyContext();
-        context.setAuthentication(auth);
-        SecurityContextHolder.setContext(context);
-        request.getSession(true).setAttribute(
-                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context
-        );
+    public ResponseEntity<UserDto> login(@RequestBody LoginRequest req, HttpServletRequest request,
+                                         HttpServletResponse response) {
+        // a successful authenticate() also upgrades an outdated stored hash to the configured
+        // algorithm/cost (CustomUserDetailsService.updatePassword)
+        // security.login{outcome}: user lookup + hash check (+ re-hash), without the response work
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Authentication auth;
+        try {
+            auth = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(req.getUsername(), req.getPassword())
+            );
+        } catch (AuthenticationException e) {
+            sample.stop(meterRegistry.timer("security.login", "outcome", "failure"));
+            throw e;
+        }
+        sample.stop(meterRegistry.timer("security.login", "outcome", "success"));
 
         UserDetails ud = (UserDetails) auth.getPrincipal();
-        // fetch full user so we can return profile info
-        User u = userRepository.findByUsername(ud.getUsername()).orElse(null);
+        // profile info comes with the authenticated principal (cached), no second users query
+        AccountDetails u = ud instanceof AccountDetails account ? account
+                : userDetailsService.findAccount(ud.getUsername());
+        establishLogin(auth, u != null ? u.getId() : null, request, response);
         String role = simplifyRoleFromAuthorities(ud.getAuthorities());
 
         UserDto dto = new UserDto(
@@ -125,6 +170,8 @@ public class AuthController {
         new SecurityContextLogoutHandler().logout(
                 request, response, SecurityContextHolder.getContext().getAuthentication()
         );
+        // Tokens cannot be revoked server-side; dropping the cookie ends the browser session
+        response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie("", 0).toString());
         return ResponseEntity.ok().build();
     }
 
@@ -137,7 +184,8 @@ public class AuthController {
     public ResponseEntity<UserDto> me(@AuthenticationPrincipal UserDetails principal) {
         if (principal == null) return ResponseEntity.status(401).build();
 
-        User u = userRepository.findByUsername(principal.getUsername()).orElse(null);
+        // served from the user-details cache; the session principal may predate a profile edit
+        AccountDetails u = userDetailsService.findAccount(principal.getUsername());
         String role = simplifyRoleFromAuthorities(principal.getAuthorities());
 
         UserDto dto = new UserDto(
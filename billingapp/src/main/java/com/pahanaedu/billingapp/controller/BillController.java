@@ -1,17 +1,22 @@
 package com.pahanaedu.billingapp.controller;
 
 import com.pahanaedu.billingapp.dto.BillDTO;
+import com.pahanaedu.billingapp.dto.BulkDeleteRequest;
+import com.pahanaedu.billingapp.dto.BulkDeleteResult;
 import com.pahanaedu.billingapp.model.Bill;
 import com.pahanaedu.billingapp.model.User;
 import com.pahanaedu.billingapp.service.BillPDFService;
 import com.pahanaedu.billingapp.service.BillService;
+import com.pahanaedu.billingapp.service.ResourceVersionService;
 import com.pahanaedu.billingapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.*;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,11 +28,14 @@ public class BillController {
     private final BillService billService;
     private final BillPDFService billPDFService;
     private final UserService userService;
+    private final ResourceVersionService versions;
 
-    public BillController(BillService billService, BillPDFService billPDFService, UserService userService) {
+    public BillController(BillService billService, BillPDFService billPDFService, UserService userService,
+                          ResourceVersionService versions) {
         this.billService = billService;
         this.billPDFService = billPDFService;
         this.userService = userService;
+        this.versions = versions;
     }
 
     @GetMapping
@@ -60,11 +68,15 @@ public class BillController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get bill by ID (with user ownership validation)")
-    public ResponseEntity<?> getBillById(@PathVariable Long id) {
+    public ResponseEntity<?> getBillById(@PathVariable Long id, WebRequest webRequest) {
         try {
             // Get current authenticated user
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String username = auth.getName();
+
+            // Unchanged since this user last fetched it: 304 without loading the bill
+            String etag = versions.billEtag(id, username);
+            if (webRequest.checkNotModified(etag)) return null;
             
             User currentUser = userService.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("User not found"));
@@ -79,7 +91,7 @@ public class BillController {
                 bill = billService.getBillByIdAndUserId(id, currentUser.getId());
             }
             
-            return ResponseEntity.ok(bill);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(bill);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body("Access denied: " + e.getMessage());
@@ -148,6 +160,23 @@ public class BillController {
         }
     }
 
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk delete bills by ids, user or date range [from, to) (Admin only)")
+    public ResponseEntity<?> bulkDeleteBills(@RequestBody BulkDeleteRequest request) {
+        BulkDeleteResult result;
+        if (request.ids() != null && !request.ids().isEmpty()) {
+            result = billService.deleteBills(request.ids(), request.restoreStock());
+        } else if (request.userId() != null) {
+            result = billService.deleteBillsByUser(request.userId(), request.restoreStock());
+        } else if (request.from() != null && request.to() != null && request.from().isBefore(request.to())) {
+            result = billService.deleteBillsBetween(request.from(), request.to(), request.restoreStock());
+        } else {
+            return ResponseEntity.badRequest().body("Specify ids, userId, or a from/to date range");
+        }
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/print/{id}")
     @Operation(summary = "View and print bill as HTML (with user ownership validation)")
     public ResponseEntity<?> printBill(@PathVariable Long id) {
@@ -75,17 +75,14 @@ public class BillWebController {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Filter users based on role
-        List<User> users;
-        if (currentUser.getRoles().stream().anyMatch(role -> 
-                "ROLE_ADMIN".equals(role.getName()) || "ADMIN".equals(role.getName()))) {
-            // Admin can create bills for any user
-            users = userService.getAllUsers();
-        } else {
-            // Regular users can only create bills for themselves
-            users = List.of(currentUser);
-        }
+        boolean customerSearch = currentUser.getRoles().stream().anyMatch(role -> 
+                "ROLE_ADMIN".equals(role.getName()) || "ADMIN".equals(role.getName()));
+        // Admin can create bills for any user and picks them with the typeahead (/api/v1/users?q=);
+        // regular users can only create bills for themselves
+        List<User> users = customerSearch ? List.of() : List.of(currentUser);
         
         model.addAttribute("users", users);
+        model.addAttribute("customerSearch", customerSearch);
         model.addAttribute("items", itemService.getAllItems());
         return "add_bill";
     }
@@ -1,5 +1,8 @@
 package com.pahanaedu.billingapp.controller;
 
+import com.pahanaedu.billingapp.service.ImageStorageService;
+import com.pahanaedu.billingapp.service.ImageVariantRegistry;
+import com.pahanaedu.billingapp.service.ThumbnailService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -7,65 +10,50 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/upload")
 public class FileUploadController {
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    private final ImageStorageService imageStorageService;
+    private final ThumbnailService thumbnailService;
+    private final ImageVariantRegistry imageVariants;
 
     @Value("${app.upload.base-url:http://localhost:8080}")
     private String baseUrl;
 
+    public FileUploadController(ImageStorageService imageStorageService, ThumbnailService thumbnailService,
+                                ImageVariantRegistry imageVariants) {
+        this.imageStorageService = imageStorageService;
+        this.thumbnailService = thumbnailService;
+        this.imageVariants = imageVariants;
+    }
+
     @PostMapping("/image")
     @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
-    public ResponseEntity<Map<String, String>> uploadImage(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> uploadImage(@RequestParam("file") MultipartFile file) {
         try {
-            // Validate file
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
-            }
-
-            // Check file type
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                return ResponseEntity.badRequest().body(Map.of("error", "File must be an image"));
-            }
-
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            String filename = UUID.randomUUID().toString() + extension;
+            // Validates size and magic bytes, then moves the file into place
+            ImageStorageService.StoredImage stored = imageStorageService.store(file);
 
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            // Resize in the background; variants stays empty until they exist (unless deduplicated)
+            thumbnailService.enqueue(stored.filename());
 
             // Return URL
-            String imageUrl = baseUrl + "/uploads/" + filename;
-            Map<String, String> response = new HashMap<>();
+            String imageUrl = baseUrl + "/uploads/" + stored.filename();
+            Map<String, Object> response = new HashMap<>();
             response.put("url", imageUrl);
-            response.put("filename", filename);
+            response.put("filename", stored.filename());
+            response.put("contentType", stored.format().contentType());
+            response.put("variants", imageVariants.urlsFor(imageUrl));
+            response.put("deduplicated", stored.deduplicated());
 
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.internalServerError().body(Map.of("error", "Failed to upload file: " + e.getMessage()));
         }
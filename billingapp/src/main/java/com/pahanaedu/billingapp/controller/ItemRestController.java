@@ -1,50 +1,110 @@
 package com.pahanaedu.billingapp.controller;
 
 import com.pahanaedu.billingapp.dto.ItemDTO;
+import com.pahanaedu.billingapp.dto.RelatedItemDTO;
 import com.pahanaedu.billingapp.model.Item;
 import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.service.ItemService;
+import com.pahanaedu.billingapp.service.RecommendationService;
+import com.pahanaedu.billingapp.service.ResourceVersionService;
+import com.pahanaedu.billingapp.service.SalesCounterService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/items")
 public class ItemRestController {
 
     private final ItemRepository repo;
+    private final RecommendationService recommendationService;
+    private final SalesCounterService salesCounterService;
+    private final ResourceVersionService versions;
+    private final ItemService itemService;
 
-    public ItemRestController(ItemRepository repo) {
+    public ItemRestController(ItemRepository repo,
+                              RecommendationService recommendationService,
+                              SalesCounterService salesCounterService,
+                              ResourceVersionService versions,
+                              ItemService itemService) {
         this.repo = repo;
+        this.recommendationService = recommendationService;
+        this.salesCounterService = salesCounterService;
+        this.versions = versions;
+        this.itemService = itemService;
     }
 
-    // GET /api/v1/items?page=0&size=12&q=pen&category=Fiction
+    // GET /api/v1/items?page=0&size=12&q=pen&category=Fiction&sort=bestselling
+    // Catalog reads answer If-None-Match from the change counter, before the catalog query runs
     @GetMapping
-    public Page<Item> list(@RequestParam(defaultValue = "0") int page,
-                           @RequestParam(defaultValue = "12") int size,
-                           @RequestParam(defaultValue = "") String q,
-                           @RequestParam(required = false) String category) {
-        Pageable pageable = PageRequest.of(page, size);
-        return repo.search(category, q, pageable);
+    public ResponseEntity<Page<Item>> list(@RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "12") int size,
+                                           @RequestParam(defaultValue = "") String q,
+                                           @RequestParam(required = false) String category,
+                                           @RequestParam(required = false) String sort,
+                                           WebRequest webRequest) {
+        String etag = versions.catalogEtag("items");
+        if (webRequest.checkNotModified(etag)) return null;
+
+        Pageable pageable = "bestselling".equalsIgnoreCase(sort)
+                ? PageRequest.of(page, size, Sort.by(Sort.Order.desc("unitsSold"), Sort.Order.asc("id")))
+                : PageRequest.of(page, size);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                .body(repo.search(category, q, pageable));
     }
 
     // GET /api/v1/items/categories - get all unique categories
     @GetMapping("/categories")
-    public ResponseEntity<java.util.List<String>> getCategories() {
+    public ResponseEntity<java.util.List<String>> getCategories(WebRequest webRequest) {
+        String etag = versions.catalogEtag("categories");
+        if (webRequest.checkNotModified(etag)) return null;
+
         java.util.List<String> categories = repo.findDistinctCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(categories);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getOne(@PathVariable Long id) {
+    public ResponseEntity<Item> getOne(@PathVariable Long id, WebRequest webRequest) {
+        String etag = versions.catalogEtag("item-" + id);
+        if (webRequest.checkNotModified(etag)) return null;
+
         return repo.findById(id)
-                .map(ResponseEntity::ok)
+                .map(item -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(item))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // GET /api/v1/items/{id}/related?limit=6 - "customers also bought", served from memory
+    @GetMapping("/{id}/related")
+    public ResponseEntity<java.util.List<RelatedItemDTO>> getRelated(@PathVariable Long id,
+                                                                     @RequestParam(defaultValue = "6") int limit) {
+        return ResponseEntity.ok(recommendationService.relatedItems(id, Math.min(limit, 50)));
+    }
+
+    // POST /api/v1/items/related/rebuild - recompute recommendations from bill history in the background (ADMIN)
+    @PostMapping("/related/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildRelated() {
+        boolean started = recommendationService.rebuildInBackground();
+        return ResponseEntity.accepted().body(Map.of("started", started));
+    }
+
+    // POST /api/v1/items/sales/resync - recompute bestseller counters from bill history (ADMIN)
+    @PostMapping("/sales/resync")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> resyncSales() {
+        int updated = salesCounterService.resyncFromHistory();
+        return ResponseEntity.ok(Map.of("updatedItems", updated));
+    }
+
     // CREATE (ADMIN/STAFF)
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
@@ -58,7 +118,7 @@ public class ItemRestController {
         item.setImageUrl(dto.getImageUrl());               // <--- map imageUrl
         item.setLanguage(dto.getLanguage());               // <--- map language
         item.setBookType(dto.getBookType());               // <--- map bookType
-        Item saved = repo.save(item);
+        Item saved = itemService.saveItem(item); // bumps the catalog version and journals the stock
         return ResponseEntity.ok(saved);
     }
 
@@ -75,7 +135,8 @@ public class ItemRestController {
             existing.setImageUrl(dto.getImageUrl());       // <--- map imageUrl
             existing.setLanguage(dto.getLanguage());       // <--- map language
             existing.setBookType(dto.getBookType());       // <--- map bookType
-            return ResponseEntity.ok(repo.save(existing));
+            Item saved = itemService.saveItem(existing);
+            return ResponseEntity.ok(saved);
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -84,6 +145,8 @@ public class ItemRestController {
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (!repo.existsById(id)) return ResponseEntity.notFound().build();
         repo.deleteById(id);
+        recommendationService.forgetItem(id);
+        versions.catalogChanged();
         return ResponseEntity.noContent().build();
     }
 
@@ -0,0 +1,33 @@
+package com.pahanaedu.billingapp.controller;
+
+import com.pahanaedu.billingapp.security.PasswordHashBenchmark;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/password-hashing")
+@RequiredArgsConstructor
+public class PasswordHashingController {
+
+    private final PasswordHashBenchmark benchmark;
+
+    // Hash time per cost factor on this node (Admin only). Runs on the request thread; keep ranges small.
+    @GetMapping("/benchmark")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PasswordHashBenchmark.Result>> benchmark(
+            @RequestParam(defaultValue = "8") int minStrength,
+            @RequestParam(defaultValue = "13") int maxStrength,
+            @RequestParam(defaultValue = "100000,310000,600000") List<Integer> pbkdf2Iterations,
+            @RequestParam(defaultValue = "5") int samples) {
+        if (minStrength < 4 || maxStrength > 15 || minStrength > maxStrength
+                || samples < 1 || samples > 20 || pbkdf2Iterations.size() > 5
+                || pbkdf2Iterations.stream().anyMatch(i -> i < 1 || i > 2_000_000)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(benchmark.run(minStrength, maxStrength, pbkdf2Iterations, samples));
+    }
+}
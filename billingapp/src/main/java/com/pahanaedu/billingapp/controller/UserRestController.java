@@ -1,16 +1,19 @@
 package com.pahanaedu.billingapp.controller;
 
+import com.pahanaedu.billingapp.dto.BulkDeleteRequest;
+import com.pahanaedu.billingapp.dto.BulkDeleteResult;
 import com.pahanaedu.billingapp.dto.UserDto;
+import com.pahanaedu.billingapp.dto.UserPurchaseSummaryDTO;
 import com.pahanaedu.billingapp.model.User;
 import com.pahanaedu.billingapp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @RestController
 @RequestMapping("/api/v1/users")
 public class UserRestController {
@@ -18,21 +21,42 @@ public class UserRestController {
     @Autowired
     private UserService userService;
 
-    // Get all users (Admin only)
+    // Search users by username / full name / email / phone prefix, one page at a time (Admin only)
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserDto>> getAllUsers() {
+    public ResponseEntity<Page<UserDto>> getAllUsers(@RequestParam(required = false) String q,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size) {
         try {
-            List<User> users = userService.getAllUsers();
-            List<UserDto> userDtos = users.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(userDtos);
+            Page<User> users = userService.searchUsers(q,
+                    PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 100), Sort.by("username")));
+            return ResponseEntity.ok(users.map(this::convertToDto));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    // Users with bill count, lifetime spend and last purchase; sort=spend|bills|recent|id (Admin only)
+    @GetMapping("/summaries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<UserPurchaseSummaryDTO>> getUserSummaries(@RequestParam(required = false) String q,
+                                                                         @RequestParam(defaultValue = "spend") String sort,
+                                                                         @RequestParam(defaultValue = "0") int page,
+                                                                         @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.searchUserSummaries(
+                q, sort, Math.max(page, 0), Math.min(Math.max(size, 1), 100)));
+    }
+
+    // Delete users (admins are skipped) together with their bills; counts of affected rows (Admin only)
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkDeleteResult> bulkDeleteUsers(@RequestBody BulkDeleteRequest request) {
+        if (request.ids() == null || request.ids().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.deleteUsers(request.ids(), request.restoreStock()));
+    }
+
     // Get user by ID (Admin only)
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
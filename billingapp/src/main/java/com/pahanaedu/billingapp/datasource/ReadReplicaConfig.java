@@ -0,0 +1,105 @@
+package com.pahanaedu.billingapp.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary + read replica pools behind one routing DataSource (app.datasource.replica.enabled=true).
+ * The primary keeps the usual spring.datasource.* / spring.datasource.hikari.* settings; the
+ * replica is configured under app.datasource.replica.*. With the flag off the auto-configured
+ * single pool is used and {@link ReplicaRead} methods are plain read-only transactions.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesGuard readYourWritesGuard(
+            @Value("${app.datasource.replica.read-your-writes-window:PT5S}") Duration window) {
+        return new ReadYourWritesGuard(window);
+    }
+
+    @Bean
+    ReplicaReadAspect replicaReadAspect(EntityManagerFactory entityManagerFactory,
+                                        PlatformTransactionManager transactionManager) {
+        return new ReplicaReadAspect(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                transactionManager);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesGuard guard,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new RoutingDataSource(primary, replica, guard, meterRegistry));
+    }
+
+    // Local stand-in replicas (a second H2 database) have no replication to give them a schema,
+    // so they can be migrated from the same scripts; real replicas leave migrate-locations empty
+    @Bean
+    public SmartInitializingSingleton replicaSchemaMigration(
+            @Qualifier("replicaDataSource") HikariDataSource replica,
+            @Value("${app.datasource.replica.migrate-locations:}") String[] locations) {
+        return () -> {
+            if (locations.length == 0) {
+                return;
+            }
+            HikariDataSource writable = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getJdbcUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            try (writable) {
+                Flyway.configure()
+                        .dataSource(writable)
+                        .locations(locations)
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.pahanaedu.billingapp.datasource;
+
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillsDeletedEvent;
+import com.pahanaedu.billingapp.event.UsersDeletedEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they write, so the bill they
+ * just checked out is visible on the next page even while the replica is still catching up.
+ * The window should exceed the replica's usual replication lag.
+ */
+public class ReadYourWritesGuard {
+
+    private final long windowNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesGuard(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    // Route the signed-in user's reads to the primary for the next window
+    public void pinCurrentUser() {
+        String username = currentUsername();
+        if (username != null) {
+            pinnedUntil.put(username, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public boolean isCurrentUserPinned() {
+        String username = currentUsername();
+        if (username == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(username);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(username, until);
+        return false;
+    }
+
+    // Checkout committed: the redirect to the new bill must not read a replica that lacks it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillCreated(BillCreatedEvent event) {
+        pinCurrentUser();
+    }
+
+    // Admin deletes: the list they return to must not still show the removed bills or users
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillsDeleted(BillsDeletedEvent event) {
+        pinCurrentUser();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersDeleted(UsersDeletedEvent event) {
+        pinCurrentUser();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
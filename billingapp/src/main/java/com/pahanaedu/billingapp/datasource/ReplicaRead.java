@@ -0,0 +1,22 @@
+package com.pahanaedu.billingapp.datasource;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Read-only service method whose queries may be served by the read replica
+ * (when app.datasource.replica.enabled=true; otherwise just a read-only transaction).
+ * Only for reads that tolerate replication lag: anything whose result is edited and saved back,
+ * or checked before a write, must stay on the primary.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,70 @@
+package com.pahanaedu.billingapp.datasource;
+
+import jakarta.persistence.EntityManager;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Marks the current thread as replica-eligible for the duration of a {@link ReplicaRead} method.
+ * Ordered ahead of the transaction interceptor, so the flag is already set when the transaction
+ * opens its (lazily acquired) connection. The aspect opens that read-only transaction itself and
+ * switches the session to {@link CacheMode#GET}: entities may still come from the second-level
+ * cache, but rows read from a lagging replica are never put into it, where primary reads would
+ * pick them up.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class ReplicaReadAspect {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    ReplicaReadAspect(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Carries a checked exception out of the transaction callback
+    private static final class Failure extends RuntimeException {
+        Failure(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    @Around("@annotation(com.pahanaedu.billingapp.datasource.ReplicaRead)"
+            + " || @within(com.pahanaedu.billingapp.datasource.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = RoutingDataSource.replicaRequested();
+        RoutingDataSource.requestReplica(true);
+        try {
+            return readOnlyTransaction.execute(status -> proceedWithoutCacheStores(joinPoint));
+        } catch (Failure failure) {
+            throw failure.getCause();
+        } finally {
+            RoutingDataSource.requestReplica(previous);
+        }
+    }
+
+    private Object proceedWithoutCacheStores(ProceedingJoinPoint joinPoint) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new Failure(e);
+        } finally {
+            session.setCacheMode(previous);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.pahanaedu.billingapp.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Picks the primary or the replica pool per connection. The replica is used only inside a
+ * read-only transaction opened by a {@link ReplicaRead} method, and never for a user pinned by
+ * {@link ReadYourWritesGuard}; everything else (writes, repository calls outside such a method,
+ * Flyway, sessions) goes to the primary. Wrapped in a LazyConnectionDataSourceProxy so the choice
+ * is made at the first statement, after the transaction's read-only flag is known.
+ */
+class RoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> REPLICA_REQUESTED = ThreadLocal.withInitial(() -> false);
+
+    private final ReadYourWritesGuard guard;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    RoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesGuard guard, MeterRegistry meterRegistry) {
+        this.guard = guard;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.primaryConnections = Counter.builder("datasource.route.connections")
+                .tag("target", "primary").register(meterRegistry);
+        this.replicaConnections = Counter.builder("datasource.route.connections")
+                .tag("target", "replica").register(meterRegistry);
+    }
+
+    static boolean replicaRequested() {
+        return REPLICA_REQUESTED.get();
+    }
+
+    static void requestReplica(boolean requested) {
+        if (requested) {
+            REPLICA_REQUESTED.set(true);
+        } else {
+            REPLICA_REQUESTED.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (REPLICA_REQUESTED.get()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !guard.isCurrentUserPinned()) {
+            replicaConnections.increment();
+            return Route.REPLICA;
+        }
+        primaryConnections.increment();
+        return Route.PRIMARY;
+    }
+}
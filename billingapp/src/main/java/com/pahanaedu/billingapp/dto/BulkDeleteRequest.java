@@ -0,0 +1,13 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Selects bills by ids, by user, or by bill date range [from, to); exactly one selector is used
+public record BulkDeleteRequest(
+        List<Long> ids,
+        Long userId,
+        LocalDateTime from,
+        LocalDateTime to,
+        boolean restoreStock
+) {}
@@ -0,0 +1,20 @@
+package com.pahanaedu.billingapp.dto;
+
+// Rows touched by a bulk delete
+public record BulkDeleteResult(
+        int users,
+        int bills,
+        int billItems,
+        int itemsRestocked
+) {
+    public static final BulkDeleteResult NONE = new BulkDeleteResult(0, 0, 0, 0);
+
+    public BulkDeleteResult plus(BulkDeleteResult other) {
+        return new BulkDeleteResult(users + other.users, bills + other.bills,
+                billItems + other.billItems, itemsRestocked + other.itemsRestocked);
+    }
+
+    public BulkDeleteResult withUsers(int users) {
+        return new BulkDeleteResult(users, bills, billItems, itemsRestocked);
+    }
+}
@@ -0,0 +1,8 @@
+package com.pahanaedu.billingapp.dto;
+
+public record RelatedItemDTO(
+        Long id,
+        String name,
+        String imageUrl,
+        int coPurchases
+) {}
@@ -0,0 +1,15 @@
+package com.pahanaedu.billingapp.dto;
+
+import java.time.LocalDateTime;
+
+// One row of the admin user list: the user plus aggregates over their bills
+public record UserPurchaseSummaryDTO(
+        Long userId,
+        String username,
+        String fullName,
+        String email,
+        String phone,
+        Long billCount,
+        Double totalSpent,
+        LocalDateTime lastPurchase
+) {}
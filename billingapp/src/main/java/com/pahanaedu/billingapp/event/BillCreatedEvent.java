@@ -0,0 +1,21 @@
+package com.pahanaedu.billingapp.event;
+
+import java.util.List;
+
+/**
+ * Published by BillService once a bill has been saved.
+ * Carries a snapshot of the bill lines so listeners never need to reload the bill.
+ */
+public record BillCreatedEvent(
+        Long billId,
+        Long userId,
+        List<Line> lines
+) {
+    public record Line(
+            Long itemId,
+            String itemName,
+            String imageUrl,
+            int quantity,
+            double subtotal
+    ) {}
+}
@@ -0,0 +1,12 @@
+package com.pahanaedu.billingapp.event;
+
+import java.util.List;
+
+/**
+ * Published by BillService after a bulk delete removed bills (hot or archived).
+ * stockRestored tells whether their quantities were put back on the shelf.
+ */
+public record BillsDeletedEvent(
+        List<Long> billIds,
+        boolean stockRestored
+) {}
@@ -0,0 +1,10 @@
+package com.pahanaedu.billingapp.event;
+
+/**
+ * Published when an item is created or edited with an explicit stock level.
+ * Checkout deductions and restocks are implied by the bill events and are not repeated here.
+ */
+public record StockChangedEvent(
+        Long itemId,
+        int stock
+) {}
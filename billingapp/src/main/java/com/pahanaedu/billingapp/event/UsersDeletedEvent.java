@@ -0,0 +1,10 @@
+package com.pahanaedu.billingapp.event;
+
+import java.util.List;
+
+/**
+ * Published by UserService after users were deleted (their bills go with them).
+ */
+public record UsersDeletedEvent(
+        List<Long> userIds
+) {}
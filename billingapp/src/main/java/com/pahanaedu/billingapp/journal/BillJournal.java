@@ -0,0 +1,314 @@
+package com.pahanaedu.billingapp.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of bill and stock changes in memory-mapped segment files.
+ * <p>
+ * Appends copy a CRC-framed record into the mapped segment under a short lock and return; a
+ * flusher thread forces the written range to disk once per group-commit window, so one fsync
+ * covers every record appended in that window. Callers that need durability wait for their
+ * sequence with {@link #awaitDurable}. A segment that cannot take the next record is forced and
+ * closed, and a new one named after its first sequence is mapped. On startup the last segment is
+ * scanned and appending continues after its last valid record (a torn tail is zeroed).
+ * Nothing here touches the database.
+ */
+@Component
+@Slf4j
+public class BillJournal {
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitNanos;
+    private final boolean sync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition forced = lock.newCondition();
+
+    // guarded by lock
+    private MappedByteBuffer segment;
+    private int segmentGeneration;
+    private int forcedPosition;
+    private long nextSequence;
+    private long durableSequence = -1;
+    private boolean running;
+
+    private Thread flusher;
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+
+    private final Counter appends;
+    private final Counter bytes;
+    private final Timer forceTimer;
+
+    public BillJournal(@Value("${app.journal.enabled:true}") boolean enabled,
+                       @Value("${app.journal.dir:journal}") Path directory,
+                       @Value("${app.journal.segment-size:64MB}") DataSize segmentSize,
+                       @Value("${app.journal.group-commit-window:PT0.005S}") Duration groupCommitWindow,
+                       @Value("${app.journal.sync:false}") boolean sync,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.groupCommitNanos = groupCommitWindow.toNanos();
+        this.sync = sync;
+        this.appends = meterRegistry.counter("journal.appends");
+        this.bytes = meterRegistry.counter("journal.bytes");
+        this.forceTimer = Timer.builder("journal.force").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        lockDirectory();
+        List<Path> segments = JournalReader.segments(directory);
+        if (segments.isEmpty()) {
+            nextSequence = 0;
+            mapNewSegment();
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            JournalReader.SegmentEnd end = JournalReader.scan(last, entry -> { });
+            if (end.torn()) {
+                log.warn("Journal segment {} has a torn record at offset {} - discarding the tail", last, end.position());
+            }
+            long first = Long.parseLong(last.getFileName().toString().replace(JournalReader.SEGMENT_SUFFIX, ""));
+            nextSequence = end.lastSequence() >= 0 ? end.lastSequence() + 1 : first;
+            mapExistingSegment(last, Math.max(end.position(), JournalCodec.SEGMENT_HEADER_SIZE), end.torn());
+        }
+        durableSequence = nextSequence - 1;
+        running = true;
+        flusher = Thread.ofPlatform().name("journal-flusher").daemon().start(this::flushLoop);
+        log.info("Bill journal open in {} at sequence {}", directory.toAbsolutePath(), nextSequence);
+    }
+
+    // One writer per directory: a second instance (or context) appending to the same segments would corrupt them
+    private void lockDirectory() throws IOException {
+        lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal directory " + directory.toAbsolutePath()
+                    + " is in use by another instance; give each instance its own app.journal.dir");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends one record and returns its sequence, or -1 when the journal is disabled.
+     * With app.journal.sync=true the call returns only once the record is on disk.
+     */
+    public long append(JournalEvent event) {
+        if (!enabled) {
+            return -1;
+        }
+        int frameSize = JournalCodec.frameSize(event);
+        if (frameSize + 4 > segmentSize - JournalCodec.SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("Journal record of " + frameSize + " bytes exceeds the segment size");
+        }
+        long sequence;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Bill journal is closed");
+            }
+            // keep 4 zero bytes after the last frame as the end marker
+            if (segment.remaining() < frameSize + 4) {
+                rollSegment();
+            }
+            sequence = nextSequence++;
+            JournalCodec.writeFrame(segment, sequence, System.currentTimeMillis(), event);
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        appends.increment();
+        bytes.increment(frameSize);
+        if (sync) {
+            awaitDurable(sequence);
+        }
+        return sequence;
+    }
+
+    /**
+     * Blocks until the record with the given sequence has been forced to disk; false if the
+     * journal closed first.
+     */
+    public boolean awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence && running) {
+                forced.awaitUninterruptibly();
+            }
+            return durableSequence >= sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Feeds every record from the given sequence on to the consumer, e.g. to rebuild a read model.
+     */
+    public long replay(long fromSequence, Consumer<JournalEntry> consumer) {
+        return JournalReader.replay(directory, fromSequence, consumer);
+    }
+
+    // Group commit: wait for a first unforced record, let the window fill, force the range once
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            int generation;
+            int from;
+            int to;
+            long upTo;
+            lock.lock();
+            try {
+                while (running && durableSequence == nextSequence - 1) {
+                    appended.awaitUninterruptibly();
+                }
+                if (!running) {
+                    return;
+                }
+                if (groupCommitNanos > 0) {
+                    long remaining = groupCommitNanos;
+                    while (running && remaining > 0) {
+                        try {
+                            remaining = appended.awaitNanos(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                }
+                target = segment;
+                generation = segmentGeneration;
+                from = forcedPosition;
+                to = segment.position();
+                upTo = nextSequence - 1;
+            } finally {
+                lock.unlock();
+            }
+
+            long started = System.nanoTime();
+            target.force(from, to - from);
+            forceTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+            lock.lock();
+            try {
+                if (generation == segmentGeneration) {
+                    forcedPosition = Math.max(forcedPosition, to);
+                }
+                durableSequence = Math.max(durableSequence, upTo);
+                forced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Caller holds the lock. The old segment is forced in full before the new one takes appends.
+    private void rollSegment() {
+        segment.force();
+        durableSequence = nextSequence - 1;
+        forced.signalAll();
+        try {
+            mapNewSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start a new journal segment", e);
+        }
+    }
+
+    private void mapNewSegment() throws IOException {
+        Path file = directory.resolve(JournalReader.segmentName(nextSequence));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        JournalCodec.writeSegmentHeader(segment, nextSequence);
+        segment.force(0, JournalCodec.SEGMENT_HEADER_SIZE);
+        segment.position(JournalCodec.SEGMENT_HEADER_SIZE);
+        forcedPosition = JournalCodec.SEGMENT_HEADER_SIZE;
+        segmentGeneration++;
+    }
+
+    private void mapExistingSegment(Path file, int position, boolean torn) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        }
+        if (torn) {
+            // zero what a crash left after the last valid frame, so it can't be mistaken for a record
+            for (int i = position; i < segment.limit(); i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.force();
+        }
+        segment.position(position);
+        forcedPosition = position;
+        segmentGeneration++;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join();
+        lock.lock();
+        try {
+            segment.force();
+            durableSequence = nextSequence - 1;
+            forced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            directoryLock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Could not release the journal directory lock", e);
+        }
+    }
+}
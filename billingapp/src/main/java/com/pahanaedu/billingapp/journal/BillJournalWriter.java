@@ -0,0 +1,77 @@
+package com.pahanaedu.billingapp.journal;
+
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillsDeletedEvent;
+import com.pahanaedu.billingapp.event.StockChangedEvent;
+import com.pahanaedu.billingapp.outbox.HandledEvents;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes committed bill and stock changes to the {@link BillJournal}. Fed by the outbox (see
+ * OutboxHandlers): the change and its outbox row commit together, so a crash or a failed append
+ * after commit leaves the row to be retried rather than a silent hole in the journal. An event
+ * only counts as delivered once its record is on disk. A record can still appear twice if the
+ * process dies between the fsync and marking the event handled; replays dedupe BillCreated by bill
+ * id, and BillsDeleted / StockSet are idempotent.
+ */
+@Component
+@RequiredArgsConstructor
+public class BillJournalWriter {
+
+    public static final String OUTBOX_HANDLER = "journal";
+
+    // bill ids per BillsDeleted record, keeps bulk deletes to a few KB per record
+    private static final int IDS_PER_RECORD = 1000;
+
+    private final BillJournal journal;
+    private final HandledEvents handledEvents;
+    private final TransactionTemplate transactionTemplate;
+
+    public void onBillCreated(long eventId, BillCreatedEvent event) {
+        List<JournalEvent.BillCreated.Line> lines = event.lines().stream()
+                .map(line -> new JournalEvent.BillCreated.Line(line.itemId(), line.quantity(), line.subtotal()))
+                .toList();
+        append(eventId, List.of(
+                new JournalEvent.BillCreated(event.billId(), event.userId() == null ? -1 : event.userId(), lines)));
+    }
+
+    public void onBillsDeleted(long eventId, BillsDeletedEvent event) {
+        List<Long> ids = event.billIds();
+        List<JournalEvent> records = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += IDS_PER_RECORD) {
+            records.add(new JournalEvent.BillsDeleted(
+                    ids.subList(start, Math.min(start + IDS_PER_RECORD, ids.size())), event.stockRestored()));
+        }
+        append(eventId, records);
+    }
+
+    public void onStockChanged(long eventId, StockChangedEvent event) {
+        append(eventId, List.of(new JournalEvent.StockSet(event.itemId(), event.stock())));
+    }
+
+    // Throws on failure, so the outbox retries the event with backoff
+    private void append(long eventId, List<JournalEvent> records) {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        Boolean handled = transactionTemplate.execute(status ->
+                !handledEvents.alreadyHandled(OUTBOX_HANDLER, List.of(eventId)).isEmpty());
+        if (Boolean.TRUE.equals(handled)) {
+            return;
+        }
+        long last = -1;
+        for (JournalEvent record : records) {
+            last = journal.append(record);
+        }
+        if (!journal.awaitDurable(last)) {
+            throw new IllegalStateException("Bill journal closed before record " + last + " reached disk");
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                handledEvents.markHandled(OUTBOX_HANDLER, List.of(eventId)));
+    }
+}
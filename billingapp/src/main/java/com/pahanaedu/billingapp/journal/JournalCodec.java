@@ -0,0 +1,136 @@
+package com.pahanaedu.billingapp.journal;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of journal segments.
+ * <pre>
+ * segment: MAGIC int, VERSION int, first sequence long, then frames, then zeros
+ * frame:   body length int (0 = end of segment), CRC32C of body int, body
+ * body:    sequence long, timestamp long, type byte, payload
+ * </pre>
+ * All numbers are big-endian. A frame whose length runs past the segment or whose CRC does not
+ * match is a torn write: it and everything after it in that segment are ignored.
+ */
+final class JournalCodec {
+
+    static final int MAGIC = 0x424A4E4C; // "BJNL"
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int FRAME_HEADER_SIZE = 8;
+
+    private static final int BODY_HEADER_SIZE = 17;
+    private static final byte BILL_CREATED = 1;
+    private static final byte BILLS_DELETED = 2;
+    private static final byte STOCK_SET = 3;
+
+    private JournalCodec() {
+    }
+
+    static int frameSize(JournalEvent event) {
+        return FRAME_HEADER_SIZE + BODY_HEADER_SIZE + payloadSize(event);
+    }
+
+    private static int payloadSize(JournalEvent event) {
+        return switch (event) {
+            case JournalEvent.BillCreated bill -> 20 + 20 * bill.lines().size();
+            case JournalEvent.BillsDeleted deleted -> 5 + 8 * deleted.billIds().size();
+            case JournalEvent.StockSet ignored -> 12;
+        };
+    }
+
+    static void writeSegmentHeader(ByteBuffer dst, long firstSequence) {
+        dst.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, firstSequence);
+    }
+
+    static boolean hasSegmentHeader(ByteBuffer src) {
+        return src.limit() >= SEGMENT_HEADER_SIZE && src.getInt(0) == MAGIC && src.getInt(4) == VERSION;
+    }
+
+    /**
+     * Writes one frame at dst's position and advances it; dst must have frameSize(event) bytes left.
+     */
+    static void writeFrame(ByteBuffer dst, long sequence, long timestamp, JournalEvent event) {
+        int frameStart = dst.position();
+        dst.position(frameStart + FRAME_HEADER_SIZE);
+        dst.putLong(sequence).putLong(timestamp);
+        switch (event) {
+            case JournalEvent.BillCreated bill -> {
+                dst.put(BILL_CREATED).putLong(bill.billId()).putLong(bill.userId()).putInt(bill.lines().size());
+                for (JournalEvent.BillCreated.Line line : bill.lines()) {
+                    dst.putLong(line.itemId()).putInt(line.quantity()).putDouble(line.subtotal());
+                }
+            }
+            case JournalEvent.BillsDeleted deleted -> {
+                dst.put(BILLS_DELETED).put((byte) (deleted.stockRestored() ? 1 : 0)).putInt(deleted.billIds().size());
+                for (Long id : deleted.billIds()) {
+                    dst.putLong(id);
+                }
+            }
+            case JournalEvent.StockSet stock -> dst.put(STOCK_SET).putLong(stock.itemId()).putInt(stock.stock());
+        }
+        int bodyLength = dst.position() - frameStart - FRAME_HEADER_SIZE;
+        // length last: until it is written the slot still reads as end-of-segment
+        dst.putInt(frameStart + 4, crc(dst, frameStart + FRAME_HEADER_SIZE, bodyLength));
+        dst.putInt(frameStart, bodyLength);
+    }
+
+    /**
+     * Reads the frame at src's position and advances past it, or returns null (position unchanged)
+     * at the end of the segment or at a torn frame.
+     */
+    static JournalEntry readFrame(ByteBuffer src) {
+        int frameStart = src.position();
+        if (src.limit() - frameStart < FRAME_HEADER_SIZE) {
+            return null;
+        }
+        int bodyLength = src.getInt(frameStart);
+        if (bodyLength < BODY_HEADER_SIZE || bodyLength > src.limit() - frameStart - FRAME_HEADER_SIZE) {
+            return null;
+        }
+        int bodyStart = frameStart + FRAME_HEADER_SIZE;
+        if (src.getInt(frameStart + 4) != crc(src, bodyStart, bodyLength)) {
+            return null;
+        }
+        ByteBuffer body = src.slice(bodyStart, bodyLength);
+        long sequence = body.getLong();
+        long timestamp = body.getLong();
+        JournalEvent event = switch (body.get()) {
+            case BILL_CREATED -> {
+                long billId = body.getLong();
+                long userId = body.getLong();
+                int count = body.getInt();
+                List<JournalEvent.BillCreated.Line> lines = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    lines.add(new JournalEvent.BillCreated.Line(body.getLong(), body.getInt(), body.getDouble()));
+                }
+                yield new JournalEvent.BillCreated(billId, userId, lines);
+            }
+            case BILLS_DELETED -> {
+                boolean restored = body.get() == 1;
+                int count = body.getInt();
+                List<Long> ids = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    ids.add(body.getLong());
+                }
+                yield new JournalEvent.BillsDeleted(ids, restored);
+            }
+            case STOCK_SET -> new JournalEvent.StockSet(body.getLong(), body.getInt());
+            default -> null;
+        };
+        if (event == null) {
+            return null;
+        }
+        src.position(bodyStart + bodyLength);
+        return new JournalEntry(sequence, timestamp, event);
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
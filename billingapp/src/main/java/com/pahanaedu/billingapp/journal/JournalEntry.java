@@ -0,0 +1,7 @@
+package com.pahanaedu.billingapp.journal;
+
+/**
+ * A journal record as read back: its sequence number, append time (epoch millis) and event.
+ */
+public record JournalEntry(long sequence, long timestamp, JournalEvent event) {
+}
@@ -0,0 +1,17 @@
+package com.pahanaedu.billingapp.journal;
+
+import java.util.List;
+
+/**
+ * What the bill journal records. Each variant has a fixed binary layout in {@link JournalCodec}.
+ */
+public sealed interface JournalEvent {
+
+    record BillCreated(long billId, long userId, List<Line> lines) implements JournalEvent {
+        public record Line(long itemId, int quantity, double subtotal) {}
+    }
+
+    record BillsDeleted(List<Long> billIds, boolean stockRestored) implements JournalEvent {}
+
+    record StockSet(long itemId, int stock) implements JournalEvent {}
+}
@@ -0,0 +1,100 @@
+package com.pahanaedu.billingapp.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Sequential reader over the segment files of a journal directory. Used by the journal itself to
+ * find where to continue after a restart, by {@link BillJournal#replay} and by {@link JournalReplay}.
+ */
+public final class JournalReader {
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * Where a segment scan stopped: the offset after the last valid frame, the last sequence seen
+     * (or -1) and whether it stopped at a torn frame rather than at the end marker.
+     */
+    public record SegmentEnd(int position, long lastSequence, boolean torn) {
+    }
+
+    private JournalReader() {
+    }
+
+    // Segment files in append order (names are the zero-padded first sequence)
+    public static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String segmentName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Feeds every entry with sequence >= fromSequence, across all segments, to the consumer.
+     * Returns the number of entries delivered.
+     */
+    public static long replay(Path directory, long fromSequence, Consumer<JournalEntry> consumer) {
+        long delivered = 0;
+        List<Path> segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            // skip whole segments that end before fromSequence (the next one starts at or below it)
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            long[] count = {0};
+            scan(segments.get(i), entry -> {
+                if (entry.sequence() >= fromSequence) {
+                    consumer.accept(entry);
+                    count[0]++;
+                }
+            });
+            delivered += count[0];
+        }
+        return delivered;
+    }
+
+    /**
+     * Reads one segment up to its end marker or first torn frame.
+     */
+    public static SegmentEnd scan(Path segment, Consumer<JournalEntry> consumer) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!JournalCodec.hasSegmentHeader(buffer)) {
+                return new SegmentEnd(0, -1, true);
+            }
+            buffer.position(JournalCodec.SEGMENT_HEADER_SIZE);
+            long lastSequence = -1;
+            JournalEntry entry;
+            while ((entry = JournalCodec.readFrame(buffer)) != null) {
+                lastSequence = entry.sequence();
+                consumer.accept(entry);
+            }
+            int position = buffer.position();
+            boolean torn = buffer.remaining() >= 4 && buffer.getInt(position) != 0;
+            return new SegmentEnd(position, lastSequence, torn);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.pahanaedu.billingapp.journal;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command-line replay of a journal directory, without starting the application:
+ * <pre>
+ * java -cp billingapp.jar -Dloader.main=com.pahanaedu.billingapp.journal.JournalReplay \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher journal [fromSequence] [--summary]
+ * </pre>
+ * Prints one line per record, or with --summary only the record counts per type and the
+ * sequence range. Torn tails are skipped exactly as the application skips them.
+ */
+public final class JournalReplay {
+
+    private JournalReplay() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("usage: JournalReplay <journal-dir> [fromSequence] [--summary]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        long from = 0;
+        boolean summary = false;
+        for (int i = 1; i < args.length; i++) {
+            if ("--summary".equals(args[i])) {
+                summary = true;
+            } else {
+                from = Long.parseLong(args[i]);
+            }
+        }
+
+        Map<String, Long> counts = new TreeMap<>();
+        long[] range = {-1, -1};
+        boolean print = !summary;
+        long total = JournalReader.replay(directory, from, entry -> {
+            counts.merge(entry.event().getClass().getSimpleName(), 1L, Long::sum);
+            if (range[0] < 0) {
+                range[0] = entry.sequence();
+            }
+            range[1] = entry.sequence();
+            if (print) {
+                System.out.println(entry.sequence() + " " + Instant.ofEpochMilli(entry.timestamp()) + " " + entry.event());
+            }
+        });
+        System.out.println(total + " records" + (total > 0 ? " (sequence " + range[0] + ".." + range[1] + ")" : "")
+                + " in " + JournalReader.segments(directory).size() + " segments: " + counts);
+    }
+}
@@ -0,0 +1,67 @@
+package com.pahanaedu.billingapp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bill moved out of the hot tables by BillArchiveService (table bill_archive, same id).
+ * Rows are written by set-based INSERT ... SELECT and never updated; reads go through
+ * {@link #toBill()} so callers keep working with Bill.
+ */
+@Entity
+@Table(name = "bill_archive") // indexes: db/migration/*/V3__bill_archive.sql
+public class ArchivedBill {
+
+    @Id
+    private Long id;
+
+    private LocalDateTime billDate;
+
+    private double totalAmount;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    private User user;
+
+    private LocalDateTime archivedAt;
+
+    @OneToMany(mappedBy = "bill")
+    @BatchSize(size = 50) // lines of a page of archived bills in one query
+    private List<ArchivedBillItem> items;
+
+    public Long getId() { return id; }
+    public LocalDateTime getBillDate() { return billDate; }
+    public double getTotalAmount() { return totalAmount; }
+    public Long getUserId() { return userId; }
+    public User getUser() { return user; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public List<ArchivedBillItem> getItems() { return items; }
+
+    // Detached Bill with the original id and lines, for views, PDFs and JSON; never to be saved
+    public Bill toBill() {
+        Bill bill = new Bill();
+        bill.setId(id);
+        bill.setBillDate(billDate);
+        bill.setTotalAmount(totalAmount);
+        bill.setUser(user);
+        List<BillItem> lines = new ArrayList<>(items.size());
+        for (ArchivedBillItem archived : items) {
+            BillItem line = new BillItem();
+            line.setId(archived.getId());
+            line.setItem(archived.getItem());
+            line.setQuantity(archived.getQuantity());
+            line.setUnitPrice(archived.getUnitPrice());
+            line.setSubtotal(archived.getSubtotal());
+            lines.add(line);
+        }
+        bill.setItems(lines);
+        return bill;
+    }
+}
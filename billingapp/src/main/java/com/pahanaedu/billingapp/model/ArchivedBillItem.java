@@ -0,0 +1,41 @@
+package com.pahanaedu.billingapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A line of an {@link ArchivedBill} (table bill_item_archive, same id as the original bill_item).
+ */
+@Entity
+@Table(name = "bill_item_archive")
+public class ArchivedBillItem {
+
+    @Id
+    private Long id;
+
+    private int quantity;
+    private double unitPrice;
+    private double subtotal;
+
+    @Column(name = "bill_id")
+    private Long billId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bill_id", insertable = false, updatable = false)
+    private ArchivedBill bill;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @ManyToOne
+    @JoinColumn(name = "item_id", insertable = false, updatable = false)
+    private Item item;
+
+    public Long getId() { return id; }
+    public int getQuantity() { return quantity; }
+    public double getUnitPrice() { return unitPrice; }
+    public double getSubtotal() { return subtotal; }
+    public Long getBillId() { return billId; }
+    public ArchivedBill getBill() { return bill; }
+    public Long getItemId() { return itemId; }
+    public Item getItem() { return item; }
+}
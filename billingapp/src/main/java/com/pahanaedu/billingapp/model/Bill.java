@@ -35,6 +35,11 @@ public class Bill {
         return id;
     }
 
+    // Archived bills are rebuilt under their original id (see ArchivedBill#toBill)
+    void setId(Long id) {
+        this.id = id;
+    }
+
     public LocalDateTime getBillDate() {
         return billDate;
     }
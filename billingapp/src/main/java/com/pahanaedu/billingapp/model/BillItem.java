@@ -30,6 +30,10 @@ public class BillItem {
         return id;
     }
 
+    void setId(Long id) {
+        this.id = id;
+    }
+
     public int getQuantity() {
         return quantity;
     }
@@ -1,9 +1,17 @@
 package com.pahanaedu.billingapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.pahanaedu.billingapp.service.ImageVariantRegistry;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "item") // optional but nice
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item") // see HibernateCacheConfig
 public class Item {
 
     @Id
@@ -39,6 +47,16 @@ public class Item {
     @Column(length = 100)
     private String bookType;
 
+    // Sales counters, maintained by SalesCounterService with delta updates only.
+    // Not updatable through the entity so item edits never overwrite a flush.
+    @ColumnDefault("0")
+    @Column(name = "units_sold", nullable = false, updatable = false)
+    private long unitsSold;
+
+    @ColumnDefault("0")
+    @Column(name = "revenue", nullable = false, updatable = false)
+    private double revenue;
+
     public Item() {}
 
     public Item(String name, String description, double price, int stock) {
@@ -70,9 +88,19 @@ public class Item {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    // Resized covers ("w160", "w320", "w640" -> url); generated in the background after upload,
+    // written out by ImageVariantRegistry once they exist
+    @JsonSerialize(using = ImageVariantRegistry.UrlsSerializer.class, nullsUsing = ImageVariantRegistry.UrlsSerializer.class)
+    public String getImageVariants() { return imageUrl; }
+
     public String getLanguage() { return language; }
     public void setLanguage(String language) { this.language = language; }
 
     public String getBookType() { return bookType; }
     public void setBookType(String bookType) { this.bookType = bookType; }
+
+    public long getUnitsSold() { return unitsSold; }
+    // Internal sales figure; kept out of the public catalog JSON
+    @JsonIgnore
+    public double getRevenue() { return revenue; }
 }
@@ -0,0 +1,67 @@
+package com.pahanaedu.billingapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending follow-up event (table outbox_event), see com.pahanaedu.billingapp.outbox.
+ */
+@Entity
+@Table(name = "outbox_event") // indexes: db/migration/*/V4__outbox.sql
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // next time the row may be claimed: now on insert, lease end while claimed, backoff after a failure
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    private int attempts;
+
+    // comma-separated names of the handlers that already succeeded
+    private String delivered;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "dead_at")
+    private LocalDateTime deadAt;
+
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventType, String payload, LocalDateTime createdAt) {
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+        this.availableAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public String getEventType() { return eventType; }
+    public String getPayload() { return payload; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getAvailableAt() { return availableAt; }
+    public void setAvailableAt(LocalDateTime availableAt) { this.availableAt = availableAt; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public String getDelivered() { return delivered; }
+    public void setDelivered(String delivered) { this.delivered = delivered; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getDeadAt() { return deadAt; }
+    public void setDeadAt(LocalDateTime deadAt) { this.deadAt = deadAt; }
+}
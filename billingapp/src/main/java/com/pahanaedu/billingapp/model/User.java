@@ -2,11 +2,16 @@ package com.pahanaedu.billingapp.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users") // indexes: db/migration/*/V2__add_lookup_indexes.sql
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,11 +19,15 @@ public class User {
 
     private String username;
     private String password;
+    @Column(name = "full_name")
     private String fullName;
     private String email;
     private String phone;
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 50) // one roles query per page of users, not one per user
+    @Fetch(FetchMode.SELECT) // loaded by its own select (not joined) so the collection cache is consulted
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
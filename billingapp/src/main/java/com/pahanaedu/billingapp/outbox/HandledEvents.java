@@ -0,0 +1,41 @@
+package com.pahanaedu.billingapp.outbox;
+
+import com.pahanaedu.billingapp.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Idempotency record for outbox handlers (table outbox_handled).
+ * A handler checks which events it already applied and marks the rest in the same transaction
+ * as its own write, so a redelivery finds them marked and a concurrent duplicate fails on the
+ * primary key and rolls back with its write.
+ */
+@Component
+@RequiredArgsConstructor
+public class HandledEvents {
+
+    private final OutboxEventRepository repository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<Long> alreadyHandled(String handler, Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(repository.findHandled(handler, eventIds));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markHandled(String handler, Collection<Long> eventIds) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long eventId : eventIds) {
+            repository.markHandled(eventId, handler, now);
+        }
+    }
+}
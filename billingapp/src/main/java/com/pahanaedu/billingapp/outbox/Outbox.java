@@ -0,0 +1,45 @@
+package com.pahanaedu.billingapp.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.billingapp.model.OutboxEvent;
+import com.pahanaedu.billingapp.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Write side of the transactional outbox.
+ * {@link #add} stores the event as a JSON row in the caller's transaction, so it commits or rolls
+ * back with the change it describes; after commit the dispatcher is woken to deliver it.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final OutboxDispatcher dispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox event " + event.getClass().getName(), e);
+        }
+        repository.save(new OutboxEvent(event.getClass().getName(), payload, LocalDateTime.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,267 @@
+package com.pahanaedu.billingapp.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pahanaedu.billingapp.model.OutboxEvent;
+import com.pahanaedu.billingapp.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the transactional outbox.
+ * A single background thread claims a batch of due rows (row-locked, SKIP LOCKED where the
+ * database has it) and pushes their available_at out by the lease in one short transaction,
+ * then runs the handlers for each event outside any transaction. Rows whose handlers all
+ * succeeded are deleted; a failed row remembers which handlers already ran and is retried after
+ * an exponential backoff, until max-attempts marks it dead. A node that dies mid-batch leaves its
+ * rows to be claimed again once the lease runs out, so delivery is at least once.
+ * The thread sleeps for poll-interval between empty polls and is woken right after a commit
+ * that added events. Idempotency records (see {@link HandledEvents}) are pruned once they are
+ * older than handled-retention, which must outlast any redelivery of the event.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private record Claim(Long id, String eventType, String payload, LocalDateTime createdAt,
+                         int attempts, Set<String> delivered) {
+    }
+
+    private record Outcome(Claim claim, Set<String> delivered, String error) {
+        boolean done() {
+            return error == null;
+        }
+    }
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, List<OutboxHandler<?>>> handlersByType;
+    private final MeterRegistry meterRegistry;
+    private final Timer lag;
+
+    private final boolean enabled;
+    private final long pollIntervalNanos;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration handledRetention;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    public OutboxDispatcher(OutboxEventRepository repository,
+                            ObjectMapper objectMapper,
+                            TransactionTemplate transactionTemplate,
+                            List<OutboxHandler<?>> handlers,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.outbox.enabled:true}") boolean enabled,
+                            @Value("${app.outbox.poll-interval:PT1S}") Duration pollInterval,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.lease:PT1M}") Duration lease,
+                            @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${app.outbox.backoff:PT1S}") Duration backoff,
+                            @Value("${app.outbox.max-backoff:PT5M}") Duration maxBackoff,
+                            @Value("${app.outbox.handled-retention:P1D}") Duration handledRetention) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.handlersByType = handlers.stream()
+                .collect(Collectors.groupingBy(h -> h.eventType().getName()));
+        this.meterRegistry = meterRegistry;
+        this.lag = Timer.builder("outbox.lag").register(meterRegistry);
+        this.enabled = enabled;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.handledRetention = handledRetention;
+    }
+
+    // Start once the context is ready, so handlers (and their read models) are fully initialised
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("outbox-dispatcher").daemon().start(this::pollLoop);
+    }
+
+    /**
+     * Cuts the poll interval short, e.g. right after a commit that added events.
+     */
+    public void wakeUp() {
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            int claimed = 0;
+            try {
+                claimed = dispatchBatch();
+            } catch (RuntimeException e) {
+                log.warn("Outbox poll failed: {}", e.getMessage());
+            }
+            // a full batch means more may be due: go again without sleeping
+            if (claimed < batchSize && running) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Claims, delivers and settles one batch; returns how many rows were claimed.
+     */
+    public int dispatchBatch() {
+        List<Claim> claims = transactionTemplate.execute(status -> claim());
+        if (claims == null || claims.isEmpty()) {
+            return 0;
+        }
+        List<Outcome> outcomes = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            outcomes.add(deliver(claim));
+        }
+        transactionTemplate.executeWithoutResult(status -> settle(outcomes));
+        return claims.size();
+    }
+
+    private List<Claim> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> rows = repository.findClaimable(now, PageRequest.of(0, batchSize));
+        List<Claim> claims = new ArrayList<>(rows.size());
+        for (OutboxEvent row : rows) {
+            row.setAttempts(row.getAttempts() + 1);
+            row.setAvailableAt(now.plus(lease));
+            claims.add(new Claim(row.getId(), row.getEventType(), row.getPayload(), row.getCreatedAt(),
+                    row.getAttempts(), parseDelivered(row.getDelivered())));
+        }
+        return claims;
+    }
+
+    // Runs every handler that has not succeeded for this row yet; one failing handler doesn't stop the others
+    private Outcome deliver(Claim claim) {
+        List<OutboxHandler<?>> handlers = handlersByType.getOrDefault(claim.eventType(), List.of());
+        Set<String> delivered = new LinkedHashSet<>(claim.delivered());
+        String error = null;
+        if (handlers.isEmpty()) {
+            log.debug("No outbox handler for {} - dropping event #{}", claim.eventType(), claim.id());
+            return new Outcome(claim, delivered, null);
+        }
+        Object event;
+        try {
+            event = objectMapper.readValue(claim.payload(), handlers.get(0).eventType());
+        } catch (JsonProcessingException e) {
+            return new Outcome(claim, delivered, "Unreadable payload: " + e.getOriginalMessage());
+        }
+        for (OutboxHandler<?> handler : handlers) {
+            if (delivered.contains(handler.name())) {
+                continue;
+            }
+            try {
+                handler.handle(claim.id(), event);
+                delivered.add(handler.name());
+                meterRegistry.counter("outbox.deliveries", "handler", handler.name(), "result", "success").increment();
+            } catch (RuntimeException e) {
+                meterRegistry.counter("outbox.deliveries", "handler", handler.name(), "result", "failure").increment();
+                log.warn("Outbox handler {} failed for event #{} (attempt {}): {}",
+                        handler.name(), claim.id(), claim.attempts(), e.getMessage());
+                error = handler.name() + ": " + e.getMessage();
+            }
+        }
+        return new Outcome(claim, delivered, error);
+    }
+
+    private void settle(List<Outcome> outcomes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> done = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            Claim claim = outcome.claim();
+            if (outcome.done()) {
+                done.add(claim.id());
+                lag.record(Duration.between(claim.createdAt(), now));
+                continue;
+            }
+            repository.findById(claim.id()).ifPresent(row -> {
+                row.setDelivered(outcome.delivered().isEmpty() ? null : String.join(",", outcome.delivered()));
+                row.setLastError(truncate(outcome.error()));
+                if (claim.attempts() >= maxAttempts) {
+                    row.setDeadAt(now);
+                    meterRegistry.counter("outbox.dead").increment();
+                    log.error("Outbox event #{} ({}) gave up after {} attempts: {}",
+                            claim.id(), claim.eventType(), claim.attempts(), outcome.error());
+                } else {
+                    row.setAvailableAt(now.plus(backoffFor(claim.attempts())));
+                }
+            });
+        }
+        if (!done.isEmpty()) {
+            repository.deleteByIds(done);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.handled-prune-interval-ms:3600000}")
+    public void pruneHandled() {
+        LocalDateTime before = LocalDateTime.now().minus(handledRetention);
+        Integer pruned = transactionTemplate.execute(status -> repository.deleteHandledBefore(before));
+        if (pruned != null && pruned > 0) {
+            log.debug("Pruned {} outbox idempotency records older than {}", pruned, before);
+        }
+    }
+
+    // backoff, 2 x backoff, 4 x backoff ... capped at max-backoff
+    private Duration backoffFor(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static Set<String> parseDelivered(String delivered) {
+        if (delivered == null || delivered.isBlank()) {
+            return Set.of();
+        }
+        return new LinkedHashSet<>(Arrays.asList(delivered.split(",")));
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+            t.join(Duration.ofSeconds(10));
+        }
+    }
+}
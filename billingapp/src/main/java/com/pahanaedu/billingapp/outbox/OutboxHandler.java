@@ -0,0 +1,20 @@
+package com.pahanaedu.billingapp.outbox;
+
+/**
+ * One in-process consumer of outbox events of a given type. The name is recorded on the row once
+ * the handler has succeeded, so a retry only re-runs the handlers that failed; keep it stable.
+ * Handlers run outside any transaction and may see an event more than once (a settle that failed
+ * after they ran, a lease that ran out mid-batch): a handler with durable side effects records the
+ * event id through {@link HandledEvents} in the transaction that applies it.
+ */
+public record OutboxHandler<E>(String name, Class<E> eventType, Delivery<? super E> action) {
+
+    @FunctionalInterface
+    public interface Delivery<E> {
+        void deliver(long eventId, E event);
+    }
+
+    void handle(long eventId, Object event) {
+        action.deliver(eventId, eventType.cast(event));
+    }
+}
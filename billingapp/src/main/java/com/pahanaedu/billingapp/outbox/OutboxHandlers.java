@@ -0,0 +1,38 @@
+package com.pahanaedu.billingapp.outbox;
+
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillsDeletedEvent;
+import com.pahanaedu.billingapp.event.StockChangedEvent;
+import com.pahanaedu.billingapp.journal.BillJournalWriter;
+import com.pahanaedu.billingapp.service.SalesCounterService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Follow-up work for checkouts, bill deletes and stock edits that goes through the outbox rather
+ * than the in-transaction event: it may fail or lag without holding up the request, and is
+ * retried until it succeeds.
+ */
+@Configuration
+public class OutboxHandlers {
+
+    @Bean
+    public OutboxHandler<BillCreatedEvent> salesCountersHandler(SalesCounterService salesCounters) {
+        return new OutboxHandler<>(SalesCounterService.OUTBOX_HANDLER, BillCreatedEvent.class, salesCounters::onBillCreated);
+    }
+
+    @Bean
+    public OutboxHandler<BillCreatedEvent> journalBillCreatedHandler(BillJournalWriter journal) {
+        return new OutboxHandler<>(BillJournalWriter.OUTBOX_HANDLER, BillCreatedEvent.class, journal::onBillCreated);
+    }
+
+    @Bean
+    public OutboxHandler<BillsDeletedEvent> journalBillsDeletedHandler(BillJournalWriter journal) {
+        return new OutboxHandler<>(BillJournalWriter.OUTBOX_HANDLER, BillsDeletedEvent.class, journal::onBillsDeleted);
+    }
+
+    @Bean
+    public OutboxHandler<StockChangedEvent> journalStockChangedHandler(BillJournalWriter journal) {
+        return new OutboxHandler<>(BillJournalWriter.OUTBOX_HANDLER, StockChangedEvent.class, journal::onStockChanged);
+    }
+}
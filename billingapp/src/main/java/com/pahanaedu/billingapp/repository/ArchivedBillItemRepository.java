@@ -0,0 +1,35 @@
+package com.pahanaedu.billingapp.repository;
+
+import com.pahanaedu.billingapp.model.ArchivedBillItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedBillItemRepository extends JpaRepository<ArchivedBillItem, Long> {
+
+    // Archival: copy the lines of the given hot bills under their own ids
+    @Modifying
+    @Query("""
+           INSERT INTO ArchivedBillItem (id, quantity, unitPrice, subtotal, billId, itemId)
+           SELECT bi.id, bi.quantity, bi.unitPrice, bi.subtotal, bi.bill.id, bi.item.id FROM BillItem bi
+           WHERE bi.bill.id IN :billIds
+           """)
+    int copyFromBillItems(@Param("billIds") Collection<Long> billIds);
+
+    // (billId, itemId) pairs for a window of archived bills, as BillItemRepository#findBasketRows
+    @Query("""
+           SELECT abi.billId, abi.itemId FROM ArchivedBillItem abi
+           WHERE abi.billId > :fromBillId AND abi.billId <= :toBillId
+           ORDER BY abi.billId
+           """)
+    List<Object[]> findBasketRows(@Param("fromBillId") Long fromBillId,
+                                  @Param("toBillId") Long toBillId);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedBillItem abi WHERE abi.billId IN :billIds")
+    int deleteByBillIds(@Param("billIds") Collection<Long> billIds);
+}
@@ -0,0 +1,45 @@
+package com.pahanaedu.billingapp.repository;
+
+import com.pahanaedu.billingapp.model.ArchivedBill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedBillRepository extends JpaRepository<ArchivedBill, Long> {
+
+    List<ArchivedBill> findByUserIdOrderById(Long userId);
+
+    List<ArchivedBill> findAllByOrderById();
+
+    @Query("SELECT MAX(ab.id) FROM ArchivedBill ab")
+    Long findMaxId();
+
+    // Archival: copy the given hot bills under their own ids (caller copies the lines next)
+    @Modifying
+    @Query("""
+           INSERT INTO ArchivedBill (id, billDate, totalAmount, userId, archivedAt)
+           SELECT b.id, b.billDate, b.totalAmount, b.user.id, :archivedAt FROM Bill b
+           WHERE b.id IN :ids
+           """)
+    int copyFromBills(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Bulk delete selectors, same shape as BillRepository's
+    @Query("SELECT ab.id FROM ArchivedBill ab WHERE ab.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT ab.id FROM ArchivedBill ab WHERE ab.userId = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT ab.id FROM ArchivedBill ab WHERE ab.billDate >= :from AND ab.billDate < :to")
+    List<Long> findIdsByBillDateBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Caller deletes the bill_item_archive rows first
+    @Modifying
+    @Query("DELETE FROM ArchivedBill ab WHERE ab.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
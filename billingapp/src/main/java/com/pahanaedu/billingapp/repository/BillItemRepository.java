@@ -2,6 +2,34 @@ package com.pahanaedu.billingapp.repository;
 
 import com.pahanaedu.billingapp.model.BillItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface BillItemRepository extends JpaRepository<BillItem, Long> {}
+import java.util.Collection;
+import java.util.List;
 
+public interface BillItemRepository extends JpaRepository<BillItem, Long> {
+
+    // (billId, itemId) pairs for a window of bills, ordered so baskets are contiguous
+    @Query("""
+           SELECT bi.bill.id, bi.item.id FROM BillItem bi
+           WHERE bi.bill.id > :fromBillId AND bi.bill.id <= :toBillId
+           ORDER BY bi.bill.id
+           """)
+    List<Object[]> findBasketRows(@Param("fromBillId") Long fromBillId,
+                                  @Param("toBillId") Long toBillId);
+
+    // (billId, itemId) pairs for the given bills, ordered as findBasketRows
+    @Query("""
+           SELECT bi.bill.id, bi.item.id FROM BillItem bi
+           WHERE bi.bill.id IN :billIds
+           ORDER BY bi.bill.id
+           """)
+    List<Object[]> findBasketRowsOf(@Param("billIds") Collection<Long> billIds);
+
+    // Bulk delete: all lines of the given bills in one statement
+    @Modifying
+    @Query("DELETE FROM BillItem bi WHERE bi.bill.id IN :billIds")
+    int deleteByBillIds(@Param("billIds") Collection<Long> billIds);
+}
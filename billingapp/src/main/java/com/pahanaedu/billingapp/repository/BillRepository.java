@@ -1,12 +1,39 @@
 package com.pahanaedu.billingapp.repository;
 
 import com.pahanaedu.billingapp.model.Bill;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BillRepository extends JpaRepository<Bill, Long> {
     // Find all bills for a specific user
     List<Bill> findByUserId(Long userId);
-}
 
+    @Query("SELECT MAX(b.id) FROM Bill b")
+    Long findMaxId();
+
+    // Bulk delete selectors: ids only, no entities or items are loaded
+    @Query("SELECT b.id FROM Bill b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Bill b WHERE b.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT b.id FROM Bill b WHERE b.billDate >= :from AND b.billDate < :to")
+    List<Long> findIdsByBillDateBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Archival: oldest bills dated before the cutoff, one batch (pageable limit) at a time
+    @Query("SELECT b.id FROM Bill b WHERE b.billDate < :cutoff ORDER BY b.id")
+    List<Long> findIdsToArchive(@Param("cutoff") LocalDateTime cutoff, Pageable batch);
+
+    // Caller deletes the bill_item rows first
+    @Modifying
+    @Query("DELETE FROM Bill b WHERE b.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -3,9 +3,13 @@ package com.pahanaedu.billingapp.repository;
 import com.pahanaedu.billingapp.model.Item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
@@ -15,7 +19,7 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     // NEW: single method that supports optional category + q
     @Query("""
            SELECT i FROM Item i
-           WHERE (:category IS NULL OR :category = '' OR LOWER(i.category) = LOWER(:category))
+           WHERE (:category IS NULL OR :category = '' OR i.category = :category)
              AND (
                    :q IS NULL OR :q = ''
                    OR LOWER(i.name)        LIKE LOWER(CONCAT('%', :q, '%'))
@@ -26,9 +30,84 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
                       @Param("q") String q,
                       Pageable pageable);
 
+    // Checkout: current rows of the given items, row-locked in id order (no deadlocks between checkouts)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    java.util.List<Item> findAllByIdForUpdate(@Param("ids") java.util.Collection<Long> ids);
+
     // Get all distinct categories
     @Query("SELECT DISTINCT i.category FROM Item i WHERE i.category IS NOT NULL AND i.category != ''")
     java.util.List<String> findDistinctCategories();
+
+    // (id, name, imageUrl) for every item, used to label in-memory recommendations
+    @Query("SELECT i.id, i.name, i.imageUrl FROM Item i")
+    java.util.List<Object[]> findAllSummaries();
+
+    // Recompute every counter from bill history (hot and archived lines) up to bill id upTo;
+    // later bills are left to the outbox, so none is counted twice or missed
+    @Modifying
+    @Transactional
+    @Query("""
+           UPDATE Item i SET
+             i.unitsSold = (SELECT COALESCE(SUM(bi.quantity), 0) FROM BillItem bi
+                            WHERE bi.item.id = i.id AND bi.bill.id <= :upTo)
+                         + (SELECT COALESCE(SUM(abi.quantity), 0) FROM ArchivedBillItem abi
+                            WHERE abi.itemId = i.id AND abi.billId <= :upTo),
+             i.revenue   = (SELECT COALESCE(SUM(bi.subtotal), 0) FROM BillItem bi
+                            WHERE bi.item.id = i.id AND bi.bill.id <= :upTo)
+                         + (SELECT COALESCE(SUM(abi.subtotal), 0) FROM ArchivedBillItem abi
+                            WHERE abi.itemId = i.id AND abi.billId <= :upTo)
+           """)
+    int resyncSalesFromHistory(@Param("upTo") long upTo);
+
+    // (imageUrl, number of items using it) - reference counts for uploaded images
+    @Query("SELECT i.imageUrl, COUNT(i) FROM Item i WHERE i.imageUrl IS NOT NULL GROUP BY i.imageUrl")
+    java.util.List<Object[]> countImageReferences();
+
+    @Query("SELECT COUNT(i) FROM Item i WHERE i.unitsSold > 0")
+    long countWithSales();
+
+    // Bulk bill delete: put the quantities of the given bills back on the shelf
+    @Modifying
+    @Query("""
+           UPDATE Item i SET i.stock = i.stock +
+             (SELECT COALESCE(SUM(bi.quantity), 0) FROM BillItem bi WHERE bi.item.id = i.id AND bi.bill.id IN :billIds)
+           WHERE i.id IN (SELECT bi.item.id FROM BillItem bi WHERE bi.bill.id IN :billIds)
+           """)
+    int restockFromBills(@Param("billIds") java.util.Collection<Long> billIds);
+
+    // Bulk bill delete: take the given bills out of the sales counters
+    @Modifying
+    @Query("""
+           UPDATE Item i SET
+             i.unitsSold = i.unitsSold - (SELECT COALESCE(SUM(bi.quantity), 0) FROM BillItem bi
+                                          WHERE bi.item.id = i.id AND bi.bill.id IN :billIds),
+             i.revenue   = i.revenue   - (SELECT COALESCE(SUM(bi.subtotal), 0) FROM BillItem bi
+                                          WHERE bi.item.id = i.id AND bi.bill.id IN :billIds)
+           WHERE i.id IN (SELECT bi.item.id FROM BillItem bi WHERE bi.bill.id IN :billIds)
+           """)
+    int removeSalesOfBills(@Param("billIds") java.util.Collection<Long> billIds);
+
+    // restockFromBills for archived bills
+    @Modifying
+    @Query("""
+           UPDATE Item i SET i.stock = i.stock +
+             (SELECT COALESCE(SUM(abi.quantity), 0) FROM ArchivedBillItem abi WHERE abi.itemId = i.id AND abi.billId IN :billIds)
+           WHERE i.id IN (SELECT abi.itemId FROM ArchivedBillItem abi WHERE abi.billId IN :billIds)
+           """)
+    int restockFromArchivedBills(@Param("billIds") java.util.Collection<Long> billIds);
+
+    // removeSalesOfBills for archived bills
+    @Modifying
+    @Query("""
+           UPDATE Item i SET
+             i.unitsSold = i.unitsSold - (SELECT COALESCE(SUM(abi.quantity), 0) FROM ArchivedBillItem abi
+                                          WHERE abi.itemId = i.id AND abi.billId IN :billIds),
+             i.revenue   = i.revenue   - (SELECT COALESCE(SUM(abi.subtotal), 0) FROM ArchivedBillItem abi
+                                          WHERE abi.itemId = i.id AND abi.billId IN :billIds)
+           WHERE i.id IN (SELECT abi.itemId FROM ArchivedBillItem abi WHERE abi.billId IN :billIds)
+           """)
+    int removeSalesOfArchivedBills(@Param("billIds") java.util.Collection<Long> billIds);
 }
 
 
@@ -0,0 +1,45 @@
+package com.pahanaedu.billingapp.repository;
+
+import com.pahanaedu.billingapp.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Claim: due rows, oldest first, row-locked; lock timeout -2 renders SKIP LOCKED where the
+    // dialect has it (MySQL 8), so dispatchers on several nodes take disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM OutboxEvent o WHERE o.deadAt IS NULL AND o.availableAt <= :now ORDER BY o.id")
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, Pageable batch);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // outbox_handled has no entity: it is only ever queried by id and inserted into
+    @Query(value = "SELECT event_id FROM outbox_handled WHERE handler = :handler AND event_id IN :ids", nativeQuery = true)
+    List<Long> findHandled(@Param("handler") String handler, @Param("ids") Collection<Long> ids);
+
+    // the primary key rejects a second insert, so two nodes applying the same event can't both commit
+    @Modifying
+    @Query(value = "INSERT INTO outbox_handled (event_id, handler, handled_at) VALUES (:eventId, :handler, :handledAt)",
+            nativeQuery = true)
+    int markHandled(@Param("eventId") long eventId, @Param("handler") String handler,
+                    @Param("handledAt") LocalDateTime handledAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_handled WHERE handled_at < :before", nativeQuery = true)
+    int deleteHandledBefore(@Param("before") LocalDateTime before);
+}
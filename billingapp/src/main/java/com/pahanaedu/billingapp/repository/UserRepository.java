@@ -1,12 +1,71 @@
 // UserRepository.java
 package com.pahanaedu.billingapp.repository;
 
+import com.pahanaedu.billingapp.dto.UserPurchaseSummaryDTO;
 import com.pahanaedu.billingapp.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // Prefix search (pattern already ends in '%'); plain LIKE so the column indexes can be used
+    @Query("""
+           SELECT u FROM User u
+           WHERE u.username LIKE :prefix ESCAPE '!'
+              OR u.fullName LIKE :prefix ESCAPE '!'
+              OR u.email    LIKE :prefix ESCAPE '!'
+              OR u.phone    LIKE :prefix ESCAPE '!'
+           """)
+    Page<User> searchByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    // Users (optionally prefix-filtered) with bill count, lifetime spend and last purchase, in one
+    // grouped query; sortable by those aggregates via JpaSort.unsafe (UserService repeats the
+    // expressions). Archived bills are added by per-user subqueries; they are all older than the
+    // hot ones, so the archive's MAX(billDate) only matters when the user has no hot bills.
+    @Query(value = """
+           SELECT new com.pahanaedu.billingapp.dto.UserPurchaseSummaryDTO(
+                  u.id, u.username, u.fullName, u.email, u.phone,
+                  COUNT(b.id)
+                    + (SELECT COUNT(ab) FROM ArchivedBill ab WHERE ab.userId = u.id),
+                  COALESCE(SUM(b.totalAmount), 0.0)
+                    + (SELECT COALESCE(SUM(ab.totalAmount), 0.0) FROM ArchivedBill ab WHERE ab.userId = u.id),
+                  COALESCE(MAX(b.billDate),
+                           (SELECT MAX(ab.billDate) FROM ArchivedBill ab WHERE ab.userId = u.id)))
+           FROM User u LEFT JOIN Bill b ON b.user = u
+           WHERE :prefix IS NULL
+              OR u.username LIKE :prefix ESCAPE '!'
+              OR u.fullName LIKE :prefix ESCAPE '!'
+              OR u.email    LIKE :prefix ESCAPE '!'
+              OR u.phone    LIKE :prefix ESCAPE '!'
+           GROUP BY u.id, u.username, u.fullName, u.email, u.phone
+           """,
+           countQuery = """
+           SELECT COUNT(u) FROM User u
+           WHERE :prefix IS NULL
+              OR u.username LIKE :prefix ESCAPE '!'
+              OR u.fullName LIKE :prefix ESCAPE '!'
+              OR u.email    LIKE :prefix ESCAPE '!'
+              OR u.phone    LIKE :prefix ESCAPE '!'
+           """)
+    Page<UserPurchaseSummaryDTO> findPurchaseSummaries(@Param("prefix") String prefix, Pageable pageable);
+
+    // Startup admin check: one count over user_roles instead of loading every user
+    @Query("SELECT COUNT(DISTINCT u.id) FROM User u JOIN u.roles r WHERE r.name IN :roleNames")
+    long countByRoleNameIn(@Param("roleNames") Collection<String> roleNames);
+
+    // Re-hash on login: touch only the password column
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
 
 
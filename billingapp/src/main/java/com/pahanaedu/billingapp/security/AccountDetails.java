@@ -0,0 +1,32 @@
+package com.pahanaedu.billingapp.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * UserDetails that also carries the profile fields the auth endpoints return, so login and /me
+ * can answer from the user-details cache instead of querying the users table again.
+ */
+public class AccountDetails extends User {
+
+    private final Long id;
+    private final String fullName;
+    private final String email;
+    private final String phone;
+
+    public AccountDetails(Long id, String username, String password, String fullName, String email, String phone,
+                          Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+        this.fullName = fullName;
+        this.email = email;
+        this.phone = phone;
+    }
+
+    public Long getId() { return id; }
+    public String getFullName() { return fullName; }
+    public String getEmail() { return email; }
+    public String getPhone() { return phone; }
+}
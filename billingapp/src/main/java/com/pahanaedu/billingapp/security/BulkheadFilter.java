@@ -0,0 +1,81 @@
+package com.pahanaedu.billingapp.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs each request of a known route group inside its {@link Bulkheads} slot. A full bulkhead
+ * answers 503 with Retry-After straight away; requests outside the groups pass untouched.
+ * Sits after {@link RateLimitFilter}, so clients over their rate never occupy a slot.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final Bulkheads bulkheads;
+
+    public BulkheadFilter(Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Bulkheads.Group group = classify(request);
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Bulkheads.Result result;
+        try {
+            result = bulkheads.acquire(group);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = Bulkheads.Result.REJECTED;
+        }
+        if (result != Bulkheads.Result.ADMITTED) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server busy, try again shortly\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkheads.release(group);
+        }
+    }
+
+    static Bulkheads.Group classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if ("POST".equals(method) && (path.equals("/api/bills") || path.equals("/bills/save"))) {
+            return Bulkheads.Group.CHECKOUT;
+        }
+        if (RateLimitFilter.classify(request) == RateLimiter.RouteClass.PDF) {
+            return Bulkheads.Group.PDF;
+        }
+        if (!"GET".equals(method)) {
+            return null;
+        }
+        // full bill lists and the admin reports read every bill or every user
+        if (path.equals("/api/bills") || path.equals("/bills")
+                || path.equals("/admin/dashboard") || PATHS.match("/admin/users/**", path)) {
+            return Bulkheads.Group.REPORTING;
+        }
+        if (PATHS.match("/api/v1/items/**", path) || path.equals("/items")) {
+            return Bulkheads.Group.CATALOG;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.pahanaedu.billingapp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named concurrency limits per workload (checkout, catalog, PDF rendering, reporting).
+ * <p>
+ * Each bulkhead admits up to max-concurrent requests at once and lets at most queue-size more wait
+ * up to max-wait for a slot; anything beyond that is turned away at once. A burst of PDF downloads
+ * or bill exports therefore fills only its own bulkhead and cannot take every request thread and
+ * pooled connection from checkout.
+ * <p>
+ * That only holds if the groups and the background work (outbox dispatcher, sales flush, archive
+ * and rebuild jobs: reserved-connections) fit in the primary pool together; a startup warning says
+ * when they don't. Requests outside every group (logins, account pages, single bills) are not
+ * limited and draw on whatever the groups leave, so keep them light or give them a group.
+ */
+@Component
+@Slf4j
+public class Bulkheads {
+
+    public enum Group { CHECKOUT, CATALOG, PDF, REPORTING }
+
+    public enum Result { ADMITTED, REJECTED, TIMED_OUT }
+
+    private static final class Bulkhead {
+        final Semaphore permits;
+        final int queueSize;
+        final long maxWaitNanos;
+        final AtomicInteger queued = new AtomicInteger();
+        final Map<Result, Counter> counters = new EnumMap<>(Result.class);
+        Timer wait;
+
+        Bulkhead(int maxConcurrent, int queueSize, Duration maxWait) {
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.queueSize = queueSize;
+            this.maxWaitNanos = maxWait.toNanos();
+        }
+    }
+
+    private final boolean enabled;
+    private final Map<Group, Bulkhead> bulkheads = new EnumMap<>(Group.class);
+
+    public Bulkheads(Environment env, MeterRegistry meterRegistry) {
+        this.enabled = env.getProperty("app.bulkhead.enabled", Boolean.class, true);
+        bulkheads.put(Group.CHECKOUT, bulkhead(env, "checkout", 10, 100, Duration.ofSeconds(2)));
+        bulkheads.put(Group.CATALOG, bulkhead(env, "catalog", 5, 200, Duration.ofSeconds(1)));
+        bulkheads.put(Group.PDF, bulkhead(env, "pdf", 2, 16, Duration.ofSeconds(2)));
+        bulkheads.put(Group.REPORTING, bulkhead(env, "reporting", 1, 8, Duration.ofSeconds(2)));
+        checkPoolSize(env);
+
+        bulkheads.forEach((group, bulkhead) -> {
+            String tag = group.name().toLowerCase();
+            for (Result result : Result.values()) {
+                bulkhead.counters.put(result, Counter.builder("bulkhead.requests")
+                        .tag("bulkhead", tag).tag("result", result.name().toLowerCase()).register(meterRegistry));
+            }
+            bulkhead.wait = Timer.builder("bulkhead.wait").tag("bulkhead", tag).register(meterRegistry);
+            Gauge.builder("bulkhead.available", bulkhead.permits, Semaphore::availablePermits)
+                    .tag("bulkhead", tag).register(meterRegistry);
+            Gauge.builder("bulkhead.queued", bulkhead.queued, AtomicInteger::get)
+                    .tag("bulkhead", tag).register(meterRegistry);
+        });
+    }
+
+    private static Bulkhead bulkhead(Environment env, String name, int defaultConcurrent, int defaultQueue,
+                                     Duration defaultWait) {
+        String prefix = "app.bulkhead." + name + ".";
+        int maxConcurrent = env.getProperty(prefix + "max-concurrent", Integer.class, defaultConcurrent);
+        int queueSize = env.getProperty(prefix + "queue-size", Integer.class, defaultQueue);
+        Duration maxWait = env.getProperty(prefix + "max-wait", Duration.class, defaultWait);
+        if (maxConcurrent < 1 || queueSize < 0 || maxWait.isNegative()) {
+            throw new IllegalStateException("app.bulkhead." + name
+                    + " needs max-concurrent >= 1, queue-size >= 0 and a non-negative max-wait");
+        }
+        return new Bulkhead(maxConcurrent, queueSize, maxWait);
+    }
+
+    private void checkPoolSize(Environment env) {
+        if (!enabled) {
+            return;
+        }
+        int poolSize = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int reserved = env.getProperty("app.bulkhead.reserved-connections", Integer.class, 2);
+        int grouped = bulkheads.values().stream().mapToInt(b -> b.permits.availablePermits()).sum();
+        if (grouped + reserved > poolSize) {
+            log.warn("Bulkheads admit {} concurrent requests and {} connections are reserved for background work,"
+                    + " but the connection pool holds {}: groups can still starve each other", grouped, reserved, poolSize);
+        }
+    }
+
+    /**
+     * Takes a slot in the group's bulkhead, waiting in its queue if there is room there.
+     * Every ADMITTED result must be paired with one {@link #release}.
+     */
+    public Result acquire(Group group) throws InterruptedException {
+        if (!enabled) {
+            return Result.ADMITTED;
+        }
+        Bulkhead bulkhead = bulkheads.get(group);
+        Result result;
+        // timed form even for the fast path: the untimed tryAcquire() barges past queued waiters
+        if (bulkhead.permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            result = Result.ADMITTED;
+        } else if (bulkhead.queued.incrementAndGet() > bulkhead.queueSize) {
+            bulkhead.queued.decrementAndGet();
+            result = Result.REJECTED;
+        } else {
+            long started = System.nanoTime();
+            try {
+                result = bulkhead.permits.tryAcquire(bulkhead.maxWaitNanos, TimeUnit.NANOSECONDS)
+                        ? Result.ADMITTED : Result.TIMED_OUT;
+            } finally {
+                bulkhead.queued.decrementAndGet();
+                bulkhead.wait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+        bulkhead.counters.get(result).increment();
+        return result;
+    }
+
+    public void release(Group group) {
+        if (enabled) {
+            bulkheads.get(group).permits.release();
+        }
+    }
+}
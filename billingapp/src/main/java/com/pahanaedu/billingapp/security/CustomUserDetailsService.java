@@ -11,17 +11,52 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final UserDetailsCache cache;
 
     @Override
-    public UserDetails loadUserByUsername(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public AccountDetails loadUserByUsername(String username) {
+        AccountDetails details = cache.get(username, this::loadFromDatabase);
+        if (details == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        return details;
+    }
+
+    // Cached account for profile lookups (login response, /me); null if the user no longer exists
+    public AccountDetails findAccount(String username) {
+        return cache.get(username, this::loadFromDatabase);
+    }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash uses an
+     * older algorithm or a lower cost than the configured encoder.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        cache.evict(user.getUsername());
+        if (user instanceof AccountDetails account) {
+            return new AccountDetails(account.getId(), account.getUsername(), newPassword, account.getFullName(),
+                    account.getEmail(), account.getPhone(), account.getAuthorities());
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build();
+    }
+
+    private AccountDetails loadFromDatabase(String username) {
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            return null;
+        }
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AccountDetails(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
+                user.getFullName(),
+                user.getEmail(),
+                user.getPhone(),
                 user.getRoles().stream()
                         .map(role -> {
                             String name = role.getName();
@@ -0,0 +1,78 @@
+package com.pahanaedu.billingapp.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how long one password hash takes on this machine for a range of cost settings, so the
+ * bcrypt strength / PBKDF2 iteration count can be chosen against the login throughput target.
+ * Every login costs one hash per request thread; a node can sustain roughly
+ * cores * 1000 / medianMillis logins per second before hashing saturates the CPU.
+ */
+@Component
+public class PasswordHashBenchmark {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final String SAMPLE_PASSWORD = "correct-horse-battery";
+
+    private final String algorithm;
+    private final int bcryptStrength;
+    private final int pbkdf2Iterations;
+
+    public record Result(String algorithm, int cost, double medianMillis, double maxLoginsPerSecond,
+                         boolean configured) {
+    }
+
+    public PasswordHashBenchmark(@Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+                                 @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength,
+                                 @Value("${app.security.password.pbkdf2-iterations:310000}") int pbkdf2Iterations) {
+        this.algorithm = algorithm;
+        this.bcryptStrength = bcryptStrength;
+        this.pbkdf2Iterations = pbkdf2Iterations;
+    }
+
+    static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    /**
+     * Bcrypt strengths minStrength..maxStrength plus PBKDF2 at the given iteration counts.
+     */
+    public List<Result> run(int minStrength, int maxStrength, List<Integer> iterations, int samples) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Result> results = new ArrayList<>();
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            double median = medianMillis(new BCryptPasswordEncoder(strength), samples);
+            results.add(new Result(BCRYPT, strength, median, cores * 1000.0 / median,
+                    BCRYPT.equals(algorithm) && strength == bcryptStrength));
+        }
+        for (int count : iterations) {
+            double median = medianMillis(pbkdf2(count), samples);
+            results.add(new Result(PBKDF2, count, median, cores * 1000.0 / median,
+                    PBKDF2.equals(algorithm) && count == pbkdf2Iterations));
+        }
+        return results;
+    }
+
+    private static double medianMillis(PasswordEncoder encoder, int samples) {
+        String hash = encoder.encode(SAMPLE_PASSWORD); // warm-up
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, hash);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[samples / 2] / 1_000_000.0;
+    }
+}
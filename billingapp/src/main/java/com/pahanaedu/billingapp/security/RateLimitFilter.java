@@ -0,0 +1,72 @@
+package com.pahanaedu.billingapp.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link RateLimiter} to login and PDF routes. Runs inside the security chain after
+ * authentication so signed-in clients are limited per user and everyone else per address.
+ * Routes outside these classes (checkout, catalog) are never limited or delayed.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.RouteClass route = classify(request);
+        if (route != null) {
+            RateLimiter.Decision decision = rateLimiter.tryAcquire(route, clientKey(request));
+            if (!decision.allowed()) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"message\":\"Too many requests, try again later\"}");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    static RateLimiter.RouteClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("POST".equals(request.getMethod())
+                && (path.equals("/api/v1/auth/login") || path.equals("/api/v1/auth/register"))) {
+            return RateLimiter.RouteClass.LOGIN;
+        }
+        if (PATHS.match("/api/bills/download-pdf/**", path)
+                || PATHS.match("/api/pdf/**", path)
+                || PATHS.match("/bills/*/pdf", path)
+                || path.equals("/help/pdf")) {
+            return RateLimiter.RouteClass.PDF;
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,127 @@
+package com.pahanaedu.billingapp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets for expensive route classes (bcrypt logins, PDF rendering).
+ * <p>
+ * Each bucket is a single AtomicLong holding the time at which it will be full again (the GCRA
+ * form of a token bucket): a request is admitted by CAS-advancing that time by one emission
+ * interval, so no locks are taken on the request path. A bucket whose full-again time has passed
+ * carries no state and is dropped by the idle sweep, which keeps memory proportional to the
+ * number of clients active within one refill period. Live buckets are never dropped (that would
+ * hand a throttled client a full burst again): once max-buckets clients are all mid-refill, new
+ * clients share one overflow bucket per route class until the sweep frees space.
+ */
+@Component
+public class RateLimiter {
+
+    public enum RouteClass { LOGIN, PDF }
+
+    public record Decision(boolean allowed, long retryAfterSeconds) {
+        static final Decision ALLOW = new Decision(true, 0);
+    }
+
+    private record Limit(long intervalNanos, long burstNanos) {
+    }
+
+    private static final long FORCED_SWEEP_GAP_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final boolean enabled;
+    private final int maxBuckets;
+    private final Map<RouteClass, Limit> limits = new EnumMap<>(RouteClass.class);
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<RouteClass, AtomicLong> overflow = new EnumMap<>(RouteClass.class);
+    private final AtomicLong lastForcedSweep = new AtomicLong(System.nanoTime());
+
+    private final Map<RouteClass, Counter> allowedCounters = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> rejectedCounters = new EnumMap<>(RouteClass.class);
+
+    public RateLimiter(Environment env, MeterRegistry meterRegistry) {
+        this.enabled = env.getProperty("app.ratelimit.enabled", Boolean.class, true);
+        this.maxBuckets = env.getProperty("app.ratelimit.max-buckets", Integer.class, 100_000);
+        limits.put(RouteClass.LOGIN, limit(env, "login", 10, 10));
+        limits.put(RouteClass.PDF, limit(env, "pdf", 20, 30));
+
+        for (RouteClass route : RouteClass.values()) {
+            overflow.put(route, new AtomicLong(System.nanoTime()));
+            String tag = route.name().toLowerCase();
+            allowedCounters.put(route, Counter.builder("ratelimit.requests")
+                    .tag("route", tag).tag("result", "allowed").register(meterRegistry));
+            rejectedCounters.put(route, Counter.builder("ratelimit.requests")
+                    .tag("route", tag).tag("result", "rejected").register(meterRegistry));
+        }
+        Gauge.builder("ratelimit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    // capacity = burst size, per-minute = sustained refill rate
+    private static Limit limit(Environment env, String name, int defaultCapacity, int defaultPerMinute) {
+        int capacity = env.getProperty("app.ratelimit." + name + ".capacity", Integer.class, defaultCapacity);
+        int perMinute = env.getProperty("app.ratelimit." + name + ".per-minute", Integer.class, defaultPerMinute);
+        if (capacity < 1 || perMinute < 1) {
+            throw new IllegalStateException("app.ratelimit." + name + " capacity and per-minute must be positive");
+        }
+        long interval = Duration.ofMinutes(1).toNanos() / perMinute;
+        return new Limit(interval, interval * (capacity - 1));
+    }
+
+    public Decision tryAcquire(RouteClass route, String clientKey) {
+        if (!enabled) {
+            return Decision.ALLOW;
+        }
+        Limit limit = limits.get(route);
+        String key = route.name() + '|' + clientKey;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxBuckets || makeRoom()
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()))
+                    : overflow.get(route);
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            long fullAt = bucket.get();
+            long start = fullAt - now < 0 ? now : fullAt;
+            long wait = start - now - limit.burstNanos();
+            if (wait > 0) {
+                rejectedCounters.get(route).increment();
+                return new Decision(false, (wait + 999_999_999L) / 1_000_000_000L);
+            }
+            if (bucket.compareAndSet(fullAt, start + limit.intervalNanos())) {
+                allowedCounters.get(route).increment();
+                return Decision.ALLOW;
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they are indistinguishable from new ones.
+     */
+    @Scheduled(fixedDelayString = "${app.ratelimit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(b -> b.get() - now < 0);
+    }
+
+    // Table full (e.g. spoofed sources): sweep refilled buckets, at most once a second so a flood of
+    // new keys doesn't turn every request into a full scan; false if every bucket is still live
+    private boolean makeRoom() {
+        long now = System.nanoTime();
+        long last = lastForcedSweep.get();
+        if (now - last > FORCED_SWEEP_GAP_NANOS && lastForcedSweep.compareAndSet(last, now)) {
+            evictIdle();
+        }
+        return buckets.size() < maxBuckets;
+    }
+}
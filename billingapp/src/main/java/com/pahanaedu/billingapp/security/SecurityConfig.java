@@ -1,5 +1,7 @@
 package com.pahanaedu.billingapp.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,14 +11,19 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableMethodSecurity
@@ -26,7 +33,19 @@ public class SecurityConfig {
     private static final String FRONTEND_REACT = "http://localhost:3000";
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService,
+                                                   RateLimiter rateLimiter, Bulkheads bulkheads) throws Exception {
+        // Signed tokens are always accepted; in stateless mode the server also never creates a session
+        TokenAuthenticationFilter tokenFilter = new TokenAuthenticationFilter(tokenService);
+        http.addFilterBefore(tokenFilter, UsernamePasswordAuthenticationFilter.class);
+        // Once the caller is known, throttle login attempts and PDF rendering per user / address
+        http.addFilterAfter(new RateLimitFilter(rateLimiter), TokenAuthenticationFilter.class);
+        // Then give checkout, catalog, PDF and reporting each their own bounded share of the server
+        http.addFilterAfter(new BulkheadFilter(bulkheads), RateLimitFilter.class);
+        if (tokenService.isStateless()) {
+            http.sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        }
+
         return http
                 .cors(c -> c.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
@@ -35,6 +54,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/setup", "/api/setup/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/items/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/help/**").authenticated()
                         .requestMatchers("/profile/**").authenticated()
                         .requestMatchers("/api/profile/**").authenticated()
@@ -54,14 +76,34 @@ public class SecurityConfig {
         cfg.setAllowedOriginPatterns(List.of(FRONTEND_VITE, FRONTEND_REACT, "http://localhost:8080"));
         cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
         cfg.setAllowedHeaders(List.of("*"));
+        cfg.setExposedHeaders(List.of("X-Auth-Token"));
         cfg.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource src = new UrlBasedCorsConfigurationSource();
         src.registerCorsConfiguration("/**", cfg);
         return src;
     }
 
+    // Hashes are stored as {id}hash. New hashes use app.security.password.algorithm; hashes of another
+    // algorithm, and bcrypt hashes of another cost (higher or lower), are re-hashed on the next
+    // successful login (CustomUserDetailsService.updatePassword). PBKDF2 hashes don't record their
+    // iteration count, so a new pbkdf2-iterations only applies to new hashes.
+    // Unprefixed hashes from before the switch are plain bcrypt.
     @Bean
-    public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength,
+                                           @Value("${app.security.password.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+                                           MeterRegistry meterRegistry) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(PasswordHashBenchmark.BCRYPT, new CostMatchingBCryptPasswordEncoder(bcryptStrength));
+        encoders.put(PasswordHashBenchmark.PBKDF2, PasswordHashBenchmark.pbkdf2(pbkdf2Iterations));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported app.security.password.algorithm '" + algorithm
+                    + "', expected one of " + encoders.keySet());
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new TimedPasswordEncoder(encoder, meterRegistry);
+    }
 
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
@@ -0,0 +1,145 @@
+package com.pahanaedu.billingapp.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issues and verifies compact HS256 JWTs for the stateless session mode.
+ * Tokens carry the user id, username and authorities, so requests can be authenticated without a
+ * session or database lookup on any node that shares the keys.
+ *
+ * Keys are configured as "kid:base64secret" pairs in app.security.token.keys. New tokens are signed
+ * with app.security.token.active-key; every configured key is accepted for verification, which
+ * allows rotating keys without logging everyone out.
+ */
+@Service
+@Slf4j
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+    private static final long CLOCK_SKEW_SECONDS = 30;
+
+    private final ObjectMapper objectMapper;
+    private final boolean stateless;
+    private final Duration ttl;
+    private final Map<String, byte[]> keys = new LinkedHashMap<>();
+    private final String activeKeyId;
+
+    public record Claims(String sub, Long uid, List<String> roles, long iat, long exp) {}
+
+    private record Header(String alg, String typ, String kid) {}
+
+    public TokenService(ObjectMapper objectMapper,
+                        @Value("${app.security.stateless:false}") boolean stateless,
+                        @Value("${app.security.token.ttl:PT8H}") Duration ttl,
+                        @Value("${app.security.token.keys:}") List<String> keySpecs,
+                        @Value("${app.security.token.active-key:}") String activeKeyId) {
+        this.objectMapper = objectMapper;
+        this.stateless = stateless;
+        this.ttl = ttl;
+
+        for (String spec : keySpecs) {
+            if (spec.isBlank()) continue;
+            int colon = spec.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalStateException("app.security.token.keys entries must look like kid:base64secret");
+            }
+            byte[] secret = Base64.getDecoder().decode(spec.substring(colon + 1).trim());
+            if (secret.length < 32) {
+                throw new IllegalStateException("Token key '" + spec.substring(0, colon) + "' must be at least 256 bits");
+            }
+            keys.put(spec.substring(0, colon).trim(), secret);
+        }
+
+        if (keys.isEmpty()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            keys.put("ephemeral", secret);
+            this.activeKeyId = "ephemeral";
+            if (stateless) {
+                log.warn("No app.security.token.keys configured - using a random key; tokens will not survive "
+                        + "a restart or be accepted by other nodes");
+            }
+        } else {
+            this.activeKeyId = activeKeyId.isBlank() ? keys.keySet().iterator().next() : activeKeyId;
+            if (!keys.containsKey(this.activeKeyId)) {
+                throw new IllegalStateException("app.security.token.active-key '" + this.activeKeyId + "' is not configured");
+            }
+        }
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(Long userId, String username, List<String> roles) {
+        long now = Instant.now().getEpochSecond();
+        Claims claims = new Claims(username, userId, roles, now, now + ttl.toSeconds());
+        try {
+            String header = B64.encodeToString(objectMapper.writeValueAsBytes(new Header("HS256", "JWT", activeKeyId)));
+            String payload = B64.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String signingInput = header + "." + payload;
+            return signingInput + "." + B64.encodeToString(sign(keys.get(activeKeyId), signingInput));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to issue token", e);
+        }
+    }
+
+    /**
+     * Verify signature and expiry. Returns null for any malformed, forged or expired token.
+     */
+    public Claims verify(String token) {
+        try {
+            int first = token.indexOf('.');
+            int second = token.indexOf('.', first + 1);
+            if (first < 0 || second < 0 || token.indexOf('.', second + 1) >= 0) return null;
+
+            Header header = objectMapper.readValue(B64_DECODER.decode(token.substring(0, first)), Header.class);
+            byte[] key = header.kid() == null ? null : keys.get(header.kid());
+            if (key == null || !"HS256".equals(header.alg())) return null;
+
+            byte[] expected = sign(key, token.substring(0, second));
+            byte[] actual = B64_DECODER.decode(token.substring(second + 1));
+            if (!MessageDigest.isEqual(expected, actual)) return null;
+
+            Claims claims = objectMapper.readValue(B64_DECODER.decode(token.substring(first + 1, second)), Claims.class);
+            long now = Instant.now().getEpochSecond();
+            if (claims.exp() + CLOCK_SKEW_SECONDS < now || claims.iat() - CLOCK_SKEW_SECONDS > now) return null;
+            return claims;
+        } catch (IllegalArgumentException | java.io.IOException e) {
+            return null;
+        }
+    }
+
+    private static byte[] sign(byte[] key, String input) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac.doFinal(input.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
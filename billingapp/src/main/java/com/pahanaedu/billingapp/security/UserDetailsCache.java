@@ -0,0 +1,154 @@
+package com.pahanaedu.billingapp.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of user accounts keyed by username.
+ * Entries are immutable snapshots; callers get a fresh {@link AccountDetails} each time because
+ * Spring Security erases the password of the principal it authenticated.
+ * <p>
+ * UserService evicts an entry whenever the account, its password or its roles change; the TTL
+ * bounds staleness for changes made on another node. Inside a transaction the evict is repeated
+ * after completion, and a load that overlapped any evict is not kept, so a login racing the change
+ * can't put the pre-commit row back for a whole TTL. Hit/miss counts are published as
+ * security.user.cache.gets{result=hit|miss}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private record Snapshot(Long id, String username, String password, String fullName, String email, String phone,
+                            List<GrantedAuthority> authorities, long expiresAtNanos) {
+    }
+
+    private final Map<String, Snapshot> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // bumped by every evict; a load that saw another value when it started is not kept
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserDetailsCache(@Value("${app.security.user-cache.ttl:PT5M}") Duration ttl,
+                            @Value("${app.security.user-cache.max-size:10000}") int maxSize,
+                            MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+
+        FunctionCounter.builder("security.user.cache.gets", hits, LongAdder::doubleValue)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("security.user.cache.gets", misses, LongAdder::doubleValue)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("security.user.cache.evictions", evictions, LongAdder::doubleValue)
+                .register(meterRegistry);
+        Gauge.builder("security.user.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Return the cached account or load it. The loader returns null for unknown users, which are
+     * not cached so a later registration is picked up immediately.
+     */
+    public AccountDetails get(String username, Function<String, AccountDetails> loader) {
+        if (ttlNanos <= 0 || maxSize <= 0) {
+            misses.increment();
+            return loader.apply(username);
+        }
+        Snapshot snapshot = entries.get(username);
+        long now = System.nanoTime();
+        if (snapshot != null && now - snapshot.expiresAtNanos() < 0) {
+            hits.increment();
+            return toDetails(snapshot);
+        }
+        misses.increment();
+        long seen = invalidations.get();
+        AccountDetails loaded = loader.apply(username);
+        if (loaded == null) {
+            entries.remove(username);
+            return null;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        Snapshot fresh = new Snapshot(loaded.getId(), loaded.getUsername(), loaded.getPassword(),
+                loaded.getFullName(), loaded.getEmail(), loaded.getPhone(),
+                List.copyOf(loaded.getAuthorities()), now + ttlNanos);
+        entries.put(username, fresh);
+        // an evict counts before it removes, so either it removes this entry or this check sees it
+        if (invalidations.get() != seen) {
+            entries.remove(username, fresh);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop the entry now and, when called inside a transaction, once more after it completes:
+     * until the commit other sessions still read the old row and may cache it again.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(username);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        invalidations.incrementAndGet();
+        evictions.add(entries.size());
+        entries.clear();
+    }
+
+    private void remove(String username) {
+        invalidations.incrementAndGet();
+        if (entries.remove(username) != null) {
+            evictions.increment();
+        }
+    }
+
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // Drop expired entries first; if the cache is still full, drop arbitrary ones
+    private void makeRoom(long now) {
+        entries.values().removeIf(s -> now - s.expiresAtNanos() >= 0);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static AccountDetails toDetails(Snapshot s) {
+        return new AccountDetails(s.id(), s.username(), s.password(), s.fullName(), s.email(), s.phone(),
+                s.authorities());
+    }
+}
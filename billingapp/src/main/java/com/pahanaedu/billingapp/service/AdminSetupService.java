@@ -4,42 +4,38 @@ import com.pahanaedu.billingapp.model.Role;
 import com.pahanaedu.billingapp.model.User;
 import com.pahanaedu.billingapp.repository.RoleRepository;
 import com.pahanaedu.billingapp.repository.UserRepository;
+import com.pahanaedu.billingapp.security.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AdminSetupService {
 
+    // Current and legacy role names
+    private static final List<String> ADMIN_ROLES = List.of("ROLE_ADMIN", "ADMIN");
+    private static final List<String> USER_ROLES = List.of("ROLE_USER", "USER");
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     /**
      * Check if any admin user exists in the system
      */
     public boolean adminExists() {
         try {
-            Role adminRole = roleRepository.findByName("ROLE_ADMIN")
-                    .orElseGet(() -> roleRepository.findByName("ADMIN").orElse(null));
-            
-            if (adminRole == null) {
-                log.warn("Admin role not found in database");
-                return false;
-            }
-
-            long adminCount = userRepository.findAll().stream()
-                    .filter(user -> user.getRoles() != null && 
-                            user.getRoles().stream()
-                                    .anyMatch(role -> "ROLE_ADMIN".equals(role.getName()) || "ADMIN".equals(role.getName())))
-                    .count();
-
+            long adminCount = userRepository.countByRoleNameIn(ADMIN_ROLES);
             log.info("Found {} admin users in the system", adminCount);
             return adminCount > 0;
         } catch (Exception e) {
@@ -77,6 +73,7 @@ public class AdminSetupService {
         adminUser.setRoles(roles);
 
         User savedAdmin = userRepository.save(adminUser);
+        userDetailsCache.evict(username);
         log.info("Admin user created successfully: {}", username);
         return savedAdmin;
     }
@@ -85,9 +82,15 @@ public class AdminSetupService {
      * Initialize basic roles if they don't exist
      */
     public void initializeRoles() {
+        // One lookup for all four names
+        List<String> names = new ArrayList<>(ADMIN_ROLES);
+        names.addAll(USER_ROLES);
+        Set<String> existing = roleRepository.findByNameIn(names).stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
+
         // Create ADMIN role if it doesn't exist
-        if (!roleRepository.findByName("ROLE_ADMIN").isPresent() && 
-            !roleRepository.findByName("ADMIN").isPresent()) {
+        if (ADMIN_ROLES.stream().noneMatch(existing::contains)) {
             Role adminRole = new Role();
             adminRole.setName("ROLE_ADMIN");
             roleRepository.save(adminRole);
@@ -95,8 +98,7 @@ public class AdminSetupService {
         }
 
         // Create USER role if it doesn't exist
-        if (!roleRepository.findByName("ROLE_USER").isPresent() && 
-            !roleRepository.findByName("USER").isPresent()) {
+        if (USER_ROLES.stream().noneMatch(existing::contains)) {
             Role userRole = new Role();
             userRole.setName("ROLE_USER");
             roleRepository.save(userRole);
@@ -0,0 +1,151 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.BulkDeleteResult;
+import com.pahanaedu.billingapp.model.ArchivedBill;
+import com.pahanaedu.billingapp.model.Bill;
+import com.pahanaedu.billingapp.repository.ArchivedBillItemRepository;
+import com.pahanaedu.billingapp.repository.ArchivedBillRepository;
+import com.pahanaedu.billingapp.repository.BillItemRepository;
+import com.pahanaedu.billingapp.repository.BillRepository;
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Archive tier for old bills.
+ * A background job moves bills dated before now - app.archive.horizon, with their lines, from
+ * bill / bill_item into bill_archive / bill_item_archive (same ids), one short transaction per
+ * batch, so the hot tables and their indexes only hold recent sales. Moving a bill does not change
+ * any sale, so the item sales counters are left alone; the reads and rollups that cover history
+ * (BillService lookups, user summaries, sales resync, recommendation rebuild) read both tiers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BillArchiveService {
+
+    // ids per IN list when deleting archived bills
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final BillRepository billRepository;
+    private final BillItemRepository billItemRepository;
+    private final ArchivedBillRepository archivedBillRepository;
+    private final ArchivedBillItemRepository archivedBillItemRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.horizon:P365D}")
+    private Duration horizon;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    // bounds one run, so a large first backlog is worked off over several runs
+    @Value("${app.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+               initialDelayString = "${app.archive.initial-delay-ms:300000}")
+    public void archiveOldBills() {
+        if (enabled) {
+            archiveOlderThan(LocalDateTime.now().minus(horizon));
+        }
+    }
+
+    /**
+     * Moves bills dated before the cutoff into the archive; returns how many were moved.
+     */
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        long started = System.nanoTime();
+        int moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer count = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (count == null || count == 0) {
+                break;
+            }
+            moved += count;
+        }
+        if (moved > 0) {
+            meterRegistry.counter("bills.archived").increment(moved);
+            log.info("Archived {} bills dated before {} in {} ms",
+                    moved, cutoff, (System.nanoTime() - started) / 1_000_000);
+        }
+        return moved;
+    }
+
+    // One batch: copy bills, copy lines, delete lines, delete bills - all or nothing
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = billRepository.findIdsToArchive(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBillRepository.copyFromBills(ids, LocalDateTime.now());
+        archivedBillItemRepository.copyFromBillItems(ids);
+        billItemRepository.deleteByBillIds(ids);
+        return billRepository.deleteByIds(ids);
+    }
+
+    // Reads (run inside the caller's transaction)
+
+    public Optional<Bill> findBill(Long id) {
+        return archivedBillRepository.findById(id).map(ArchivedBill::toBill);
+    }
+
+    public List<Bill> findBillsByUserId(Long userId) {
+        return archivedBillRepository.findByUserIdOrderById(userId).stream().map(ArchivedBill::toBill).toList();
+    }
+
+    public List<Bill> findAllBills() {
+        return archivedBillRepository.findAllByOrderById().stream().map(ArchivedBill::toBill).toList();
+    }
+
+    public long countBills() {
+        return archivedBillRepository.count();
+    }
+
+    // Bulk delete selectors over the archive, mirroring BillRepository's
+
+    public List<Long> findExistingIds(List<Long> ids) {
+        return archivedBillRepository.findExistingIds(ids);
+    }
+
+    public List<Long> findIdsByUserId(Long userId) {
+        return archivedBillRepository.findIdsByUserId(userId);
+    }
+
+    public List<Long> findIdsByBillDateBetween(LocalDateTime from, LocalDateTime to) {
+        return archivedBillRepository.findIdsByBillDateBetween(from, to);
+    }
+
+    /**
+     * Set-based delete of archived bills (optional restock, sales counter correction, lines, bills),
+     * the archive counterpart of BillService's bulk delete. Runs inside the caller's transaction.
+     */
+    public BulkDeleteResult deleteArchivedIds(List<Long> billIds, boolean restoreStock) {
+        BulkDeleteResult result = BulkDeleteResult.NONE;
+        for (int start = 0; start < billIds.size(); start += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = billIds.subList(start, Math.min(start + DELETE_CHUNK_SIZE, billIds.size()));
+            int restocked = restoreStock ? itemRepository.restockFromArchivedBills(chunk) : 0;
+            itemRepository.removeSalesOfArchivedBills(chunk);
+            int lines = archivedBillItemRepository.deleteByBillIds(chunk);
+            int bills = archivedBillRepository.deleteByIds(chunk);
+            result = result.plus(new BulkDeleteResult(0, bills, lines, restocked));
+        }
+        return result;
+    }
+}
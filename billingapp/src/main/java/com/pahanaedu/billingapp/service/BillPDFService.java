@@ -1,8 +1,9 @@
 package com.pahanaedu.billingapp.service;
 
 import com.pahanaedu.billingapp.model.Bill;
-import com.pahanaedu.billingapp.repository.BillRepository;
 import com.pahanaedu.billingapp.util.PdfGeneratorUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
@@ -10,22 +11,27 @@ import org.thymeleaf.context.Context;
 @Service
 public class BillPDFService {
 
-    private final BillRepository billRepository;
+    private final BillService billService;
     private final TemplateEngine templateEngine;
 
-    public BillPDFService(BillRepository billRepository, TemplateEngine templateEngine) {
-        this.billRepository = billRepository;
+    // billing.pdf.render{phase}: Thymeleaf to HTML, then HTML to PDF
+    private final Timer templateTimer;
+    private final Timer pdfTimer;
+
+    public BillPDFService(BillService billService, TemplateEngine templateEngine, MeterRegistry meterRegistry) {
+        this.billService = billService;
         this.templateEngine = templateEngine;
+        this.templateTimer = Timer.builder("billing.pdf.render").tag("phase", "template").register(meterRegistry);
+        this.pdfTimer = Timer.builder("billing.pdf.render").tag("phase", "pdf").register(meterRegistry);
     }
 
     public byte[] generateBillPdf(Long billId) {
-        Bill bill = billRepository.findById(billId)
-                .orElseThrow(() -> new IllegalArgumentException("Bill not found"));
+        Bill bill = billService.getBillById(billId); // hot or archived
 
         Context context = new Context();
         context.setVariable("bill", bill);
 
-        String html = templateEngine.process("bill-pdf", context);
-        return PdfGeneratorUtil.generatePdfFromHtml(html);
+        String html = templateTimer.record(() -> templateEngine.process("bill-pdf", context));
+        return pdfTimer.record(() -> PdfGeneratorUtil.generatePdfFromHtml(html));
     }
 }
\ No newline at end of file
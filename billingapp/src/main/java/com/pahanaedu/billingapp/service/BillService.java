@@ -2,51 +2,115 @@ package com.pahanaedu.billingapp.service;
 
 import com.pahanaedu.billingapp.dto.BillDTO;
 import com.pahanaedu.billingapp.dto.BillItemDTO;
+import com.pahanaedu.billingapp.datasource.ReplicaRead;
+import com.pahanaedu.billingapp.dto.BulkDeleteResult;
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.event.BillsDeletedEvent;
 import com.pahanaedu.billingapp.model.Bill;
 import com.pahanaedu.billingapp.model.BillItem;
 import com.pahanaedu.billingapp.model.Item;
 import com.pahanaedu.billingapp.model.User;
+import com.pahanaedu.billingapp.outbox.Outbox;
+import com.pahanaedu.billingapp.repository.BillItemRepository;
 import com.pahanaedu.billingapp.repository.BillRepository;
 import com.pahanaedu.billingapp.repository.ItemRepository;
 import com.pahanaedu.billingapp.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BillService {
 
+    // ids per IN list in bulk deletes
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final BillRepository billRepository;
+    private final BillItemRepository billItemRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersionService versions;
+    private final BillArchiveService archive;
+    private final Outbox outbox;
+
+    // billing.checkout{outcome}: createBill until its transaction completes (commit included);
+    // billing.checkout.line: per-line stock check and bill line build; billing.checkout.lines: lines per bill
+    private final MeterRegistry meterRegistry;
+    private final Timer checkoutCommitted;
+    private final Timer checkoutRolledBack;
+    private final Timer checkoutLine;
+    private final DistributionSummary checkoutLines;
 
     public BillService(BillRepository billRepository,
+                       BillItemRepository billItemRepository,
                        UserRepository userRepository,
-                       ItemRepository itemRepository) {
+                       ItemRepository itemRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       ResourceVersionService versions,
+                       BillArchiveService archive,
+                       Outbox outbox,
+                       MeterRegistry meterRegistry) {
         this.billRepository = billRepository;
+        this.billItemRepository = billItemRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
+        this.versions = versions;
+        this.archive = archive;
+        this.outbox = outbox;
+        this.meterRegistry = meterRegistry;
+        this.checkoutCommitted = Timer.builder("billing.checkout").tag("outcome", "committed").register(meterRegistry);
+        this.checkoutRolledBack = Timer.builder("billing.checkout").tag("outcome", "rolled_back").register(meterRegistry);
+        this.checkoutLine = Timer.builder("billing.checkout.line").register(meterRegistry);
+        this.checkoutLines = DistributionSummary.builder("billing.checkout.lines").register(meterRegistry);
     }
 
-    // 🔹 Fetch all bills
+    // 🔹 Fetch all bills (archived ones first; they are the oldest)
+    @ReplicaRead
     public List<Bill> getAllBills() {
-        return billRepository.findAll();
+        List<Bill> bills = new ArrayList<>(archive.findAllBills());
+        bills.addAll(billRepository.findAll());
+        return bills;
+    }
+
+    // 🔹 Count all bills, hot and archived
+    @ReplicaRead
+    public long countBills() {
+        return billRepository.count() + archive.countBills();
     }
 
-    // 🔹 Fetch bills by user ID
+    // 🔹 Fetch bills by user ID (archived ones first)
+    @ReplicaRead
     public List<Bill> getBillsByUserId(Long userId) {
-        return billRepository.findByUserId(userId);
+        List<Bill> bills = new ArrayList<>(archive.findBillsByUserId(userId));
+        bills.addAll(billRepository.findByUserId(userId));
+        return bills;
     }
 
-    // 🔹 Fetch bill by ID
+    // 🔹 Fetch bill by ID, falling back to the archive for old bills
+    // Primary: served under an ETag read from the primary, and a lagging body would be cached under it
     public Bill getBillById(Long id) {
         return billRepository.findById(id)
+                .or(() -> archive.findBill(id))
                 .orElseThrow(() -> new IllegalArgumentException("Bill with ID " + id + " not found"));
     }
 
-    // 🔹 Fetch bill by ID and validate user ownership
+    // 🔹 Fetch bill by ID and validate user ownership (primary, as above)
     public Bill getBillByIdAndUserId(Long billId, Long userId) {
         Bill bill = getBillById(billId);
         if (!bill.getUser().getId().equals(userId)) {
@@ -57,18 +121,81 @@ public class BillService {
 
     // 🔹 Save or update a Bill (internal use)
     public Bill saveBill(Bill bill) {
-        return billRepository.save(bill);
+        Bill saved = billRepository.save(bill);
+        versions.billsChanged();
+        return saved;
     }
 
-    // 🔹 Delete a bill by ID
+    // 🔹 Delete a bill by ID (set-based, stock is not restored)
+    @Transactional
     public void deleteBill(Long id) {
-        billRepository.deleteById(id);
+        deleteBills(List.of(id), false);
+    }
+
+    // 🔹 Bulk delete: bills by id (hot or archived)
+    @Transactional
+    public BulkDeleteResult deleteBills(Collection<Long> billIds, boolean restoreStock) {
+        if (billIds == null || billIds.isEmpty()) {
+            return BulkDeleteResult.NONE;
+        }
+        List<Long> ids = List.copyOf(billIds);
+        return deleteBillIds(billRepository.findExistingIds(ids), archive.findExistingIds(ids), restoreStock);
+    }
+
+    // 🔹 Bulk delete: every bill of one user
+    @Transactional
+    public BulkDeleteResult deleteBillsByUser(Long userId, boolean restoreStock) {
+        return deleteBillIds(billRepository.findIdsByUserId(userId), archive.findIdsByUserId(userId), restoreStock);
+    }
+
+    // 🔹 Bulk delete: bills dated in [from, to)
+    @Transactional
+    public BulkDeleteResult deleteBillsBetween(LocalDateTime from, LocalDateTime to, boolean restoreStock) {
+        return deleteBillIds(billRepository.findIdsByBillDateBetween(from, to),
+                archive.findIdsByBillDateBetween(from, to), restoreStock);
+    }
+
+    /**
+     * Deletes bills with a handful of DML statements per chunk of ids (optional restock, sales
+     * counter correction, bill_item, bill) instead of loading each Bill and cascading to its items.
+     * Archived ids go through the archive's counterpart. Runs inside the caller's transaction.
+     */
+    private BulkDeleteResult deleteBillIds(List<Long> billIds, List<Long> archivedIds, boolean restoreStock) {
+        BulkDeleteResult result = archive.deleteArchivedIds(archivedIds, restoreStock);
+        for (int start = 0; start < billIds.size(); start += BULK_CHUNK_SIZE) {
+            List<Long> chunk = billIds.subList(start, Math.min(start + BULK_CHUNK_SIZE, billIds.size()));
+            int restocked = restoreStock ? itemRepository.restockFromBills(chunk) : 0;
+            itemRepository.removeSalesOfBills(chunk);
+            int lines = billItemRepository.deleteByBillIds(chunk);
+            int bills = billRepository.deleteByIds(chunk);
+            result = result.plus(new BulkDeleteResult(0, bills, lines, restocked));
+        }
+        if (result.bills() > 0) {
+            versions.billsChanged();
+            versions.catalogChanged();
+            List<Long> deletedIds = new ArrayList<>(archivedIds);
+            deletedIds.addAll(billIds);
+            BillsDeletedEvent event = new BillsDeletedEvent(deletedIds, restoreStock);
+            outbox.add(event); // journaled from the outbox row that commits with the delete
+            eventPublisher.publishEvent(event);
+        }
+        return result;
     }
 
 
 
     // 🔹 Swagger-compatible: Create a bill with items and user
+    // One transaction on the primary: a failed line rolls back the stock already deducted
+    @Transactional
     public Bill createBill(BillDTO billDTO) {
+        Timer.Sample checkout = Timer.start(meterRegistry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                checkout.stop(status == STATUS_COMMITTED ? checkoutCommitted : checkoutRolledBack);
+            }
+        });
+
         // ✅ Validate User
         User user = userRepository.findById(billDTO.getUserId())
                 .orElseThrow(() ->
@@ -82,11 +209,19 @@ public class BillService {
         List<BillItem> billItems = new ArrayList<>();
         double totalAmount = 0.0;
 
+        // ✅ Lock the bill's items (fresh rows, not cached copies) so concurrent checkouts can't oversell
+        Map<Long, Item> lockedItems = itemRepository.findAllByIdForUpdate(
+                        billDTO.getItems().stream().map(BillItemDTO::getItemId).toList())
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
         // ✅ Process each item
         for (BillItemDTO itemDTO : billDTO.getItems()) {
-            Item item = itemRepository.findById(itemDTO.getItemId())
-                    .orElseThrow(() ->
-                            new IllegalArgumentException("Item with ID " + itemDTO.getItemId() + " not found"));
+            long lineStarted = System.nanoTime();
+            Item item = lockedItems.get(itemDTO.getItemId());
+            if (item == null) {
+                throw new IllegalArgumentException("Item with ID " + itemDTO.getItemId() + " not found");
+            }
 
             if (item.getStock() < itemDTO.getQuantity()) {
                 throw new IllegalArgumentException("Insufficient stock for item: " + item.getName());
@@ -107,12 +242,28 @@ public class BillService {
 
             billItems.add(billItem);
             totalAmount += subtotal;
+            checkoutLine.record(System.nanoTime() - lineStarted, TimeUnit.NANOSECONDS);
         }
+        checkoutLines.record(billItems.size());
 
         bill.setItems(billItems);
         bill.setTotalAmount(totalAmount);
 
         // ✅ Save bill and return full object
-        return billRepository.save(bill);
+        Bill savedBill = billRepository.save(bill);
+
+        // Follow-up work: cheap in-process listeners get the event after commit; sales counters and
+        // recommendations get it through the outbox row committed with the bill, delivered with retry
+        List<BillCreatedEvent.Line> lines = new ArrayList<>(billItems.size());
+        for (BillItem billItem : billItems) {
+            Item item = billItem.getItem();
+            lines.add(new BillCreatedEvent.Line(item.getId(), item.getName(), item.getImageUrl(),
+                    billItem.getQuantity(), billItem.getSubtotal()));
+        }
+        BillCreatedEvent event = new BillCreatedEvent(savedBill.getId(), user.getId(), lines);
+        outbox.add(event);
+        eventPublisher.publishEvent(event);
+
+        return savedBill;
     }
 }
@@ -0,0 +1,97 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.util.ImageVariants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Removes uploaded images that no item references any more.
+ * Reference counts come from Item.imageUrl; files (and their thumbnails) with a count of zero
+ * are deleted once they are older than the grace period, which leaves time for an upload to
+ * be attached to an item that is still being edited.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageGarbageCollector {
+
+    private static final String UPLOADS_PATH = "/uploads/";
+
+    private final ItemRepository itemRepository;
+    private final ImageStorageService imageStorageService;
+    private final ImageVariantRegistry imageVariants;
+
+    @Value("${app.upload.gc-grace-period:PT24H}")
+    private Duration gracePeriod;
+
+    public record Result(int scanned, int referenced, int deleted) {}
+
+    /**
+     * Reference count per stored file name, including thumbnails of referenced originals.
+     */
+    public Map<String, Long> referenceCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : itemRepository.countImageReferences()) {
+            String url = (String) row[0];
+            int idx = url.lastIndexOf(UPLOADS_PATH);
+            if (idx < 0) continue;
+            String filename = url.substring(idx + UPLOADS_PATH.length());
+            long count = (Long) row[1];
+            counts.merge(filename, count, Long::sum);
+            for (int width : ImageVariants.WIDTHS) {
+                String variant = ImageVariants.variantName(filename, width);
+                if (variant != null) counts.merge(variant, count, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.gc-interval-ms:21600000}",
+               initialDelayString = "${app.upload.gc-initial-delay-ms:600000}")
+    public Result collect() {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        Map<String, Long> counts = referenceCounts();
+        int scanned = 0;
+        int referenced = 0;
+        int deleted = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(imageStorageService.uploadRoot())) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file)) continue;
+                scanned++;
+                if (counts.getOrDefault(file.getFileName().toString(), 0L) > 0) {
+                    referenced++;
+                } else if (imageStorageService.deleteIfOlderThan(file, cutoff)) {
+                    imageVariants.forget(file.getFileName().toString()); // an original, or one of its derivatives
+                    deleted++;
+                }
+            }
+            // leftovers from interrupted uploads or resizes
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(imageStorageService.incomingRoot(), "*.tmp")) {
+                for (Path file : stale) {
+                    imageStorageService.deleteIfOlderThan(file, cutoff);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Upload garbage collection failed: {}", e.getMessage());
+        }
+
+        if (deleted > 0) {
+            log.info("Upload GC scanned {} files, {} referenced, deleted {} orphans", scanned, referenced, deleted);
+        }
+        return new Result(scanned, referenced, deleted);
+    }
+}
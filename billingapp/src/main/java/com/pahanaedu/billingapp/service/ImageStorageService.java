@@ -0,0 +1,206 @@
+package com.pahanaedu.billingapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores uploaded images under app.upload.dir, content-addressed by SHA-256.
+ * The multipart part is moved (not copied) out of the container's spool directory, hashed in a
+ * single streaming pass, and the format is decided from magic bytes rather than the client's
+ * Content-Type. A file with the same content is stored once; otherwise it is fsynced and
+ * atomically renamed into place so readers never see a partial image.
+ */
+@Service
+@Slf4j
+public class ImageStorageService {
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.upload.incoming-dir:${app.upload.dir:uploads}-incoming}")
+    private String incomingDir;
+
+    @Value("${app.upload.max-file-size:5MB}")
+    private DataSize maxFileSize;
+
+    public enum ImageFormat {
+        JPEG("image/jpeg", ".jpg"),
+        PNG("image/png", ".png"),
+        GIF("image/gif", ".gif"),
+        WEBP("image/webp", ".webp");
+
+        private final String contentType;
+        private final String extension;
+
+        ImageFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() { return contentType; }
+        public String extension() { return extension; }
+    }
+
+    public record StoredImage(String filename, ImageFormat format, long size, boolean deduplicated) {}
+
+    // Serializes "reuse or create" against the garbage collector deleting the same name
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    /**
+     * Validate and persist an uploaded image.
+     * @throws IllegalArgumentException if the file is empty, too large or not a supported image
+     */
+    public StoredImage store(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        if (file.getSize() > maxFileSize.toBytes()) {
+            throw new IllegalArgumentException("File must not be larger than " + maxFileSize.toMegabytes() + " MB");
+        }
+
+        Path targetDir = uploadRoot();
+        Path tmp = incomingRoot().resolve("upload-" + UUID.randomUUID() + ".tmp");
+        try {
+            // For a part spooled to disk this is a rename, not a second copy
+            file.transferTo(tmp.toFile());
+
+            byte[] header = new byte[12];
+            String sha256;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ)) {
+                int read = channel.read(ByteBuffer.wrap(header), 0);
+                header = Arrays.copyOf(header, Math.max(read, 0));
+                sha256 = digest(channel);
+            }
+            ImageFormat format = sniff(header);
+            if (format == null) {
+                throw new IllegalArgumentException("File must be a JPEG, PNG, GIF or WebP image");
+            }
+
+            String filename = sha256 + format.extension();
+            Path target = targetDir.resolve(filename);
+            fsync(tmp);
+            publishLock.lock();
+            try {
+                if (Files.exists(target)) {
+                    // Same bytes already stored: keep one copy and restart its GC grace period
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                    return new StoredImage(filename, format, Files.size(target), true);
+                }
+                moveAtomically(tmp, target);
+                fsyncDirectory(targetDir);
+            } finally {
+                publishLock.unlock();
+            }
+            return new StoredImage(filename, format, Files.size(target), false);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Delete a stored file if it is still older than the cutoff. Used by the garbage collector.
+     */
+    public boolean deleteIfOlderThan(Path file, Instant cutoff) throws IOException {
+        publishLock.lock();
+        try {
+            if (!Files.exists(file) || Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) {
+                return false;
+            }
+            return Files.deleteIfExists(file);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    public Path uploadRoot() throws IOException {
+        return Files.createDirectories(Paths.get(uploadDir).toAbsolutePath().normalize());
+    }
+
+    public Path incomingRoot() throws IOException {
+        return Files.createDirectories(Paths.get(incomingDir).toAbsolutePath().normalize());
+    }
+
+    private static String digest(FileChannel channel) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        channel.position(0);
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            sha256.update(buffer);
+            buffer.clear();
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    static ImageFormat sniff(byte[] header) {
+        if (startsWith(header, 0xFF, 0xD8, 0xFF)) return ImageFormat.JPEG;
+        if (startsWith(header, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return ImageFormat.PNG;
+        if (startsWith(header, 'G', 'I', 'F', '8')) return ImageFormat.GIF;
+        if (startsWith(header, 'R', 'I', 'F', 'F') && header.length >= 12
+                && Arrays.equals(Arrays.copyOfRange(header, 8, 12), new byte[]{'W', 'E', 'B', 'P'})) {
+            return ImageFormat.WEBP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int... magic) {
+        if (header.length < magic.length) return false;
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xFF) != magic[i]) return false;
+        }
+        return true;
+    }
+
+    static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // incoming dir on another filesystem: copy next to the target, then rename there
+            Path staged = target.resolveSibling(target.getFileName() + ".part");
+            Files.copy(source, staged, StandardCopyOption.REPLACE_EXISTING);
+            fsync(staged);
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    static void fsync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    static void fsyncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on every platform (e.g. Windows); the rename itself is still atomic
+            log.trace("Directory fsync not supported for {}", dir);
+        }
+    }
+}
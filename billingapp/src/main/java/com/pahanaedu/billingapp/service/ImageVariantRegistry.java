@@ -0,0 +1,80 @@
+package com.pahanaedu.billingapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.pahanaedu.billingapp.util.ImageVariants;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uploaded originals whose resized covers are all on disk (see ImageVariants for the naming).
+ * ThumbnailService marks an original once its derivatives exist; ImageGarbageCollector forgets it
+ * when it deletes the original or any of its derivatives, so no URL is handed out for a missing file.
+ */
+@Component
+public class ImageVariantRegistry {
+
+    private static final String UPLOADS_PATH = "/uploads/";
+
+    private final Set<String> available = ConcurrentHashMap.newKeySet();
+
+    public void markAvailable(String filename) {
+        available.add(filename);
+    }
+
+    /**
+     * Forget a deleted upload: the original itself, or the original a deleted derivative belongs to.
+     */
+    public void forget(String filename) {
+        available.remove(filename);
+        available.removeIf(original -> Arrays.stream(ImageVariants.WIDTHS)
+                .anyMatch(width -> filename.equals(ImageVariants.variantName(original, width))));
+    }
+
+    /**
+     * Size-specific URLs ("w160" -> url) for an image served from /uploads/; empty for external URLs
+     * and for uploads whose derivatives have not been generated (yet).
+     */
+    public Map<String, String> urlsFor(String imageUrl) {
+        if (imageUrl == null) return Collections.emptyMap();
+        int idx = imageUrl.lastIndexOf(UPLOADS_PATH);
+        if (idx < 0) return Collections.emptyMap();
+
+        String prefix = imageUrl.substring(0, idx + UPLOADS_PATH.length());
+        String filename = imageUrl.substring(idx + UPLOADS_PATH.length());
+        if (!available.contains(filename)) return Collections.emptyMap();
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (int width : ImageVariants.WIDTHS) {
+            String name = ImageVariants.variantName(filename, width);
+            if (name == null) return Collections.emptyMap();
+            urls.put("w" + width, prefix + name);
+        }
+        return urls;
+    }
+
+    /**
+     * Writes an image URL as its variant URLs (Item.imageVariants). Spring's ObjectMapper creates it
+     * with the registry injected.
+     */
+    public static class UrlsSerializer extends JsonSerializer<String> {
+
+        private final ImageVariantRegistry registry;
+
+        public UrlsSerializer(ImageVariantRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void serialize(String imageUrl, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            serializers.defaultSerializeValue(registry.urlsFor(imageUrl), gen);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.pahanaedu.billingapp.service;
 
+import com.pahanaedu.billingapp.datasource.ReplicaRead;
+import com.pahanaedu.billingapp.event.StockChangedEvent;
 import com.pahanaedu.billingapp.model.Item;
+import com.pahanaedu.billingapp.outbox.Outbox;
 import com.pahanaedu.billingapp.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,20 +18,39 @@ public class ItemService {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ResourceVersionService versions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Outbox outbox;
+
+    @ReplicaRead
     public List<Item> getAllItems() {
         return itemRepository.findAll();
     }
 
+    // The stock edit and its journal record (via the outbox) commit together
+    @Transactional
     public Item saveItem(Item item) {
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        versions.catalogChanged();
+        StockChangedEvent event = new StockChangedEvent(saved.getId(), saved.getStock());
+        outbox.add(event);
+        eventPublisher.publishEvent(event);
+        return saved;
     }
 
+    // Primary: the result is edited and saved back
     public Item getItemById(Long id) {
         return itemRepository.findById(id).orElse(null);
     }
 
     public void deleteItem(Long id) {
         itemRepository.deleteById(id);
+        versions.catalogChanged();
     }
 }
 
@@ -0,0 +1,364 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.dto.RelatedItemDTO;
+import com.pahanaedu.billingapp.event.BillsDeletedEvent;
+import com.pahanaedu.billingapp.event.StockChangedEvent;
+import com.pahanaedu.billingapp.repository.ArchivedBillItemRepository;
+import com.pahanaedu.billingapp.repository.ArchivedBillRepository;
+import com.pahanaedu.billingapp.repository.BillItemRepository;
+import com.pahanaedu.billingapp.repository.BillRepository;
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * "Customers also bought" engine.
+ * Keeps a sparse item-to-item co-occurrence matrix in memory: one primitive row per item,
+ * counting how many bills contained both items. The whole matrix can be rebuilt from bill_item
+ * history with a fork-join scan. Every node keeps its own copy and follows the bill table itself:
+ * a poll reads bills past the last id it applied, and ids it skipped stay in a lookback window
+ * in case their transaction commits late. Bulk deletes leave a row in bill_delete_log, and a node
+ * that sees a new one rebuilds, since the deleted lines are gone. Item names and images are
+ * reloaded on a slower schedule, and at once on the node that edited the item.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationService {
+
+    private static final int REBUILD_WINDOW = 10_000; // bill ids per history page, and per poll
+    private static final int FORK_THRESHOLD = 1_024;  // baskets per leaf task
+    private static final int POLL_LOOKBACK = 1_000;   // bill ids a skipped id is retried for before it counts as rolled back
+
+    private final BillRepository billRepository;
+    private final BillItemRepository billItemRepository;
+    private final ItemRepository itemRepository;
+    private final ArchivedBillRepository archivedBillRepository;
+    private final ArchivedBillItemRepository archivedBillItemRepository;
+    private final JdbcTemplate jdbc;
+
+    @Value("${app.recommendations.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private volatile Map<Long, LongIntHashMap> matrix = new ConcurrentHashMap<>();
+    private final Map<Long, ItemLabel> labels = new ConcurrentHashMap<>();
+
+    // Held by rebuilds and polls, so a poll never adds to a matrix that is about to be replaced
+    private final ReentrantLock rebuildGuard = new ReentrantLock();
+
+    // Poll position, guarded by rebuildGuard: highest bill id applied, and ids below it not seen yet
+    private long polledUpTo;
+    private final TreeSet<Long> unseen = new TreeSet<>();
+    private long deletesSeen; // highest bill_delete_log id already reflected in the matrix
+    private volatile boolean following; // set once the startup rebuild (or skip) has placed the poll position
+
+    private record ItemLabel(String name, String imageUrl) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildInBackground();
+            return;
+        }
+        rebuildGuard.lock();
+        try {
+            Long maxId = billRepository.findMaxId();
+            polledUpTo = maxId == null ? 0L : maxId; // follow new bills only
+            deletesSeen = latestDelete();
+            following = true;
+        } finally {
+            rebuildGuard.unlock();
+        }
+    }
+
+    /**
+     * Fold bills committed since the last poll into the matrix, or start a rebuild if bills were
+     * deleted. Skipped while a rebuild runs; the rebuild picks up from where it read history.
+     */
+    @Scheduled(fixedDelayString = "${app.recommendations.poll-interval-ms:5000}")
+    public void poll() {
+        if (!following || !rebuildGuard.tryLock()) {
+            return;
+        }
+        boolean deleted;
+        try {
+            deleted = latestDelete() != deletesSeen;
+            if (!deleted) {
+                applyNewBills();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll new bills for recommendations: {}", e.getMessage());
+            return;
+        } finally {
+            rebuildGuard.unlock();
+        }
+        if (deleted) {
+            rebuildInBackground();
+        }
+    }
+
+    private void applyNewBills() {
+        List<Object[]> rows = new ArrayList<>();
+        if (!unseen.isEmpty()) {
+            rows.addAll(billItemRepository.findBasketRowsOf(List.copyOf(unseen)));
+        }
+        rows.addAll(billItemRepository.findBasketRows(polledUpTo, polledUpTo + REBUILD_WINDOW)); // keeps bill id order
+        Set<Long> billIds = new HashSet<>();
+        for (Object[] row : rows) {
+            billIds.add((Long) row[0]);
+        }
+        for (long[] basket : toBaskets(rows)) {
+            addBasket(matrix, basket);
+        }
+        advance(billIds, billIds.stream().mapToLong(Long::longValue).max().orElse(polledUpTo));
+    }
+
+    // Move the poll position up to bound, remembering the ids on the way that were not applied
+    private void advance(Set<Long> applied, long bound) {
+        unseen.removeAll(applied);
+        for (long id = polledUpTo + 1; id <= bound; id++) {
+            if (!applied.contains(id)) unseen.add(id);
+        }
+        polledUpTo = Math.max(polledUpTo, bound);
+        unseen.headSet(polledUpTo - POLL_LOOKBACK, true).clear();
+    }
+
+    private long latestDelete() {
+        Long id = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM bill_delete_log", Long.class);
+        return id == null ? 0L : id;
+    }
+
+    // Runs in the deleting transaction, so the marker commits with the delete
+    @EventListener
+    public void onBillsDeleted(BillsDeletedEvent event) {
+        jdbc.update("INSERT INTO bill_delete_log (bill_count, deleted_at) VALUES (?, ?)",
+                event.billIds().size(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // An edited item shows its new name and image here right away; other nodes catch up on refreshLabels
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(StockChangedEvent event) {
+        itemRepository.findById(event.itemId())
+                .ifPresent(item -> labels.put(item.getId(), new ItemLabel(item.getName(), item.getImageUrl())));
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.label-refresh-interval-ms:60000}",
+               initialDelayString = "${app.recommendations.label-refresh-interval-ms:60000}")
+    public void refreshLabels() {
+        Map<Long, ItemLabel> fresh = new HashMap<>();
+        for (Object[] row : itemRepository.findAllSummaries()) {
+            fresh.put((Long) row[0], new ItemLabel((String) row[1], (String) row[2]));
+        }
+        labels.putAll(fresh);
+        labels.keySet().retainAll(fresh.keySet());
+    }
+
+    /**
+     * Top-K items most often bought together with the given item, highest count first.
+     */
+    public List<RelatedItemDTO> relatedItems(Long itemId, int limit) {
+        LongIntHashMap row = matrix.get(itemId);
+        if (row == null || limit <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<long[]> top = new PriorityQueue<>(limit + 1, Comparator.comparingLong((long[] e) -> e[1]));
+        synchronized (row) {
+            row.forEach((other, count) -> {
+                if (!labels.containsKey(other)) return; // deleted or not yet labelled
+                if (top.size() < limit) {
+                    top.add(new long[]{other, count});
+                } else if (count > top.peek()[1]) {
+                    top.poll();
+                    top.add(new long[]{other, count});
+                }
+            });
+        }
+
+        List<RelatedItemDTO> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            long[] entry = top.poll();
+            ItemLabel label = labels.get(entry[0]);
+            if (label != null) {
+                result.add(new RelatedItemDTO(entry[0], label.name(), label.imageUrl(), (int) entry[1]));
+            }
+        }
+        result.sort(Comparator.comparingInt(RelatedItemDTO::coPurchases).reversed());
+        return result;
+    }
+
+    /**
+     * Stop recommending an item, e.g. after it was deleted from the catalog.
+     */
+    public void forgetItem(Long itemId) {
+        labels.remove(itemId);
+    }
+
+    /**
+     * Start a rebuild on a background thread. Returns false if one is already running.
+     */
+    public boolean rebuildInBackground() {
+        if (rebuildGuard.isLocked()) {
+            return false;
+        }
+        Thread.ofPlatform().name("recommendation-rebuild").daemon().start(this::rebuild);
+        return true;
+    }
+
+    /**
+     * Recompute the matrix from bill history in parallel and swap it in.
+     * Returns false if a rebuild is already running.
+     */
+    public boolean rebuild() {
+        if (!rebuildGuard.tryLock()) {
+            return false;
+        }
+        try {
+            long started = System.nanoTime();
+            long deletes = latestDelete(); // before reading history, so a delete during the scan triggers another rebuild
+
+            // History spans both tiers; a bill id lives in exactly one of them
+            Long maxId = billRepository.findMaxId();
+            Long maxArchivedId = archivedBillRepository.findMaxId();
+            long upTo = Math.max(maxId == null ? 0L : maxId, maxArchivedId == null ? 0L : maxArchivedId);
+
+            Map<Long, LongIntHashMap> fresh = new ConcurrentHashMap<>();
+            Set<Long> recent = new HashSet<>(); // bill ids read within the poll lookback
+            for (long from = 0; from < upTo; from += REBUILD_WINDOW) {
+                long to = Math.min(from + REBUILD_WINDOW, upTo);
+                List<Object[]> rows = new ArrayList<>(archivedBillItemRepository.findBasketRows(from, to));
+                rows.addAll(billItemRepository.findBasketRows(from, to));
+                if (to > upTo - POLL_LOOKBACK) {
+                    rows.forEach(row -> recent.add((Long) row[0]));
+                }
+                long[][] baskets = toBaskets(rows);
+                if (baskets.length == 0) continue;
+                mergeInto(fresh, ForkJoinPool.commonPool().invoke(new CountTask(baskets, 0, baskets.length)));
+            }
+
+            refreshLabels();
+            matrix = fresh;
+            deletesSeen = deletes;
+            polledUpTo = Math.max(0, upTo - POLL_LOOKBACK);
+            unseen.clear();
+            advance(recent, upTo);
+            following = true;
+
+            log.info("Rebuilt co-purchase matrix for {} items from bills up to #{} in {} ms",
+                    fresh.size(), upTo, (System.nanoTime() - started) / 1_000_000);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild co-purchase matrix", e);
+            throw e;
+        } finally {
+            rebuildGuard.unlock();
+        }
+    }
+
+    // rows arrive ordered by bill id: (billId, itemId)
+    private static long[][] toBaskets(List<Object[]> rows) {
+        List<long[]> baskets = new ArrayList<>();
+        long[] current = new long[8];
+        int size = 0;
+        Long currentBill = null;
+        for (Object[] row : rows) {
+            Long billId = (Long) row[0];
+            if (!billId.equals(currentBill)) {
+                if (size > 1) baskets.add(distinct(Arrays.copyOf(current, size)));
+                currentBill = billId;
+                size = 0;
+            }
+            if (size == current.length) current = Arrays.copyOf(current, size * 2);
+            current[size++] = (Long) row[1];
+        }
+        if (size > 1) baskets.add(distinct(Arrays.copyOf(current, size)));
+        return baskets.toArray(new long[0][]);
+    }
+
+    private static long[] distinct(long[] items) {
+        return Arrays.stream(items).sorted().distinct().toArray();
+    }
+
+    private static void addBasket(Map<Long, LongIntHashMap> target, long[] basket) {
+        if (basket.length < 2) return;
+        for (long item : basket) {
+            LongIntHashMap row = target.computeIfAbsent(item, k -> new LongIntHashMap());
+            synchronized (row) {
+                for (long other : basket) {
+                    if (other != item) row.addTo(other, 1);
+                }
+            }
+        }
+    }
+
+    private static void mergeInto(Map<Long, LongIntHashMap> target, Map<Long, LongIntHashMap> partial) {
+        partial.forEach((item, row) -> {
+            LongIntHashMap existing = target.putIfAbsent(item, row);
+            if (existing != null) existing.addAll(row);
+        });
+    }
+
+    private static class CountTask extends RecursiveTask<Map<Long, LongIntHashMap>> {
+        private final long[][] baskets;
+        private final int from;
+        private final int to;
+
+        CountTask(long[][] baskets, int from, int to) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, LongIntHashMap> compute() {
+            if (to - from <= FORK_THRESHOLD) {
+                Map<Long, LongIntHashMap> counts = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    long[] basket = baskets[i];
+                    for (long item : basket) {
+                        LongIntHashMap row = counts.computeIfAbsent(item, k -> new LongIntHashMap());
+                        for (long other : basket) {
+                            if (other != item) row.addTo(other, 1);
+                        }
+                    }
+                }
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(baskets, from, mid);
+            left.fork();
+            Map<Long, LongIntHashMap> right = new CountTask(baskets, mid, to).compute();
+            Map<Long, LongIntHashMap> merged = left.join();
+            right.forEach((item, row) -> {
+                LongIntHashMap existing = merged.putIfAbsent(item, row);
+                if (existing != null) existing.addAll(row);
+            });
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Change counters behind the ETags of the catalog and bill endpoints.
+ * Every write path bumps the matching counter in table resource_version, so every node sees the
+ * same value. Inside a transaction the bump is deferred until after commit and then runs in a
+ * short transaction of its own: a tag never runs ahead of the data it describes, and checkouts
+ * don't hold a counter row lock for their whole transaction. Until the bump lands a reader may get
+ * the new data under the old tag, which the bump then invalidates. The counters are spread over
+ * SLOTS rows, one per writing thread; a tag is the sum over all slots.
+ */
+@Service
+@Slf4j
+public class ResourceVersionService {
+
+    private static final int SLOTS = 16; // rows seeded by V7__resource_version.sql
+
+    private record Versions(long catalog, long bills, long users) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate newTransaction;
+
+    public ResourceVersionService(JdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void catalogChanged() {
+        bump("catalog_version");
+    }
+
+    public void billsChanged() {
+        bump("bills_version");
+    }
+
+    public void usersChanged() {
+        bump("users_version");
+    }
+
+    // Checkout deducts stock, which is part of every item representation; bumped once it has committed
+    @EventListener
+    public void onBillCreated(BillCreatedEvent event) {
+        catalogChanged();
+    }
+
+    /**
+     * Weak ETag for a catalog resource, e.g. scope "items" or "item-42".
+     */
+    public String catalogEtag(String scope) {
+        return "W/\"" + scope + "-" + current().catalog() + "\"";
+    }
+
+    /**
+     * Weak ETag for a bill as seen by one principal. Bills are immutable once created, but their
+     * JSON embeds the customer and the current item rows, so those counters are part of the tag.
+     * The principal is included so a 304 can only confirm a bill the caller was already allowed to read.
+     */
+    public String billEtag(Long billId, String principal) {
+        Versions v = current();
+        return "W/\"bill-" + billId + "-" + v.bills() + "." + v.catalog() + "." + v.users()
+                + "-" + Integer.toHexString(principal.hashCode()) + "\"";
+    }
+
+    private Versions current() {
+        return jdbc.queryForObject(
+                "SELECT SUM(catalog_version), SUM(bills_version), SUM(users_version) FROM resource_version",
+                (rs, row) -> new Versions(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    private void bump(String column) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(column);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(column);
+            }
+        });
+    }
+
+    // Own short transaction: the caller's, if any, has already committed
+    private void increment(String column) {
+        String sql = "UPDATE resource_version SET " + column + " = " + column + " + 1 WHERE slot = ?";
+        int slot = (int) (Thread.currentThread().threadId() % SLOTS);
+        try {
+            newTransaction.executeWithoutResult(status -> jdbc.update(sql, slot));
+        } catch (RuntimeException e) {
+            log.warn("Could not bump {}; tags stay unchanged until the next write: {}", column, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.event.BillCreatedEvent;
+import com.pahanaedu.billingapp.model.Item;
+import com.pahanaedu.billingapp.outbox.HandledEvents;
+import com.pahanaedu.billingapp.repository.ArchivedBillItemRepository;
+import com.pahanaedu.billingapp.repository.ArchivedBillRepository;
+import com.pahanaedu.billingapp.repository.BillItemRepository;
+import com.pahanaedu.billingapp.repository.BillRepository;
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-item units-sold and revenue counters.
+ * Bills arrive through the outbox (see OutboxHandlers) and only bump striped in-memory adders per
+ * item; a scheduled flush writes the accumulated deltas to item.units_sold / item.revenue, so a
+ * hot title costs one row update per interval instead of one contended row lock per bill.
+ * Idempotency is tracked apart from the adders: each generation also keeps the outbox event ids
+ * (and their lines) it counted, and the flush takes back the lines of events another flush
+ * already applied and marks the rest in the same transaction (see HandledEvents), so a
+ * redelivered bill is counted once. The flush writes with plain JDBC and then evicts just the
+ * items it touched: a Hibernate bulk update would drop the whole item cache region on every flush.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesCounterService {
+
+    public static final String OUTBOX_HANDLER = "sales-counters";
+
+    private static final int HANDLED_LOOKUP_BATCH = 500; // event ids per outbox_handled query
+
+    private final ItemRepository itemRepository;
+    private final BillItemRepository billItemRepository;
+    private final ArchivedBillItemRepository archivedBillItemRepository;
+    private final BillRepository billRepository;
+    private final ArchivedBillRepository archivedBillRepository;
+    private final ResourceVersionService versions;
+    private final HandledEvents handledEvents;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbc;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Bills counted since the last flush; swapped for an empty one when a flush starts
+    private volatile Generation current = new Generation();
+
+    // recording takes the read side; resync and the flush's swap take the write side, so no bill straddles them
+    private final ReentrantReadWriteLock resyncLock = new ReentrantReadWriteLock();
+
+    // Highest bill id the last resync read from history; outbox redeliveries at or below it are already counted
+    private volatile long resyncedUpTo;
+
+    private static class SalesCell {
+        final LongAdder units = new LongAdder();
+        final DoubleAdder revenue = new DoubleAdder();
+    }
+
+    private static class Generation {
+        final Map<Long, SalesCell> cells = new ConcurrentHashMap<>();
+        // outbox event id -> bill counted into cells; a redelivery before the flush finds itself here
+        final Map<Long, BillCreatedEvent> events = new ConcurrentHashMap<>();
+    }
+
+    private static class Totals {
+        long units;
+        double revenue;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (itemRepository.countWithSales() == 0
+                && (billItemRepository.count() > 0 || archivedBillItemRepository.count() > 0)) {
+            log.info("Sales counters are empty - backfilling from bill history");
+            resyncFromHistory();
+        }
+    }
+
+    public void onBillCreated(long eventId, BillCreatedEvent event) {
+        resyncLock.readLock().lock();
+        try {
+            record(current, eventId, event);
+        } finally {
+            resyncLock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read side of the resync lock
+    private void record(Generation generation, long eventId, BillCreatedEvent event) {
+        if (event.billId() <= resyncedUpTo || generation.events.putIfAbsent(eventId, event) != null) {
+            return;
+        }
+        for (BillCreatedEvent.Line line : event.lines()) {
+            SalesCell cell = generation.cells.computeIfAbsent(line.itemId(), id -> new SalesCell());
+            cell.units.add(line.quantity());
+            cell.revenue.add(line.subtotal());
+        }
+    }
+
+    /**
+     * Write the bills counted since the last run to the item table in one transaction. Swaps in
+     * an empty generation under the write side of the resync lock, so no recorder is still adding
+     * to the one being written, then keeps the read side until the write is done, so a resync
+     * can't recompute the counters in between and have the bills added on top. A failed write is
+     * put back for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.sales.flush-interval-ms:10000}")
+    public void flush() {
+        Generation flushing;
+        resyncLock.writeLock().lock();
+        try {
+            flushing = current;
+            current = new Generation();
+            resyncLock.readLock().lock(); // downgrade
+        } finally {
+            resyncLock.writeLock().unlock();
+        }
+        try {
+            if (flushing.events.isEmpty()) {
+                return;
+            }
+            Integer flushed = transactionTemplate.execute(status -> write(flushing));
+            if (flushed != null && flushed > 0) {
+                log.debug("Flushed sales counters for {} items", flushed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush sales counters for {} bills: {}", flushing.events.size(), e.getMessage());
+            Generation next = current;
+            flushing.events.forEach((eventId, event) -> record(next, eventId, event));
+        } finally {
+            resyncLock.readLock().unlock();
+        }
+    }
+
+    // One transaction: add the generation's deltas less events another flush already applied, mark the rest applied
+    private int write(Generation generation) {
+        List<Long> eventIds = new ArrayList<>(generation.events.keySet());
+        Set<Long> handled = new HashSet<>();
+        for (int from = 0; from < eventIds.size(); from += HANDLED_LOOKUP_BATCH) {
+            handled.addAll(handledEvents.alreadyHandled(OUTBOX_HANDLER,
+                    eventIds.subList(from, Math.min(from + HANDLED_LOOKUP_BATCH, eventIds.size()))));
+        }
+        Map<Long, Totals> totals = new TreeMap<>(); // item id order, so concurrent flushes lock rows alike
+        generation.cells.forEach((itemId, cell) -> {
+            Totals t = totals.computeIfAbsent(itemId, id -> new Totals());
+            t.units += cell.units.sum();
+            t.revenue += cell.revenue.sum();
+        });
+        for (Long eventId : handled) {
+            for (BillCreatedEvent.Line line : generation.events.get(eventId).lines()) {
+                Totals t = totals.get(line.itemId());
+                t.units -= line.quantity();
+                t.revenue -= line.subtotal();
+            }
+        }
+        totals.values().removeIf(t -> t.units == 0);
+        eventIds.removeAll(handled);
+        handledEvents.markHandled(OUTBOX_HANDLER, eventIds);
+        if (totals.isEmpty()) {
+            return 0;
+        }
+        // delta, never absolute, so a concurrent flush on another node adds up
+        jdbc.batchUpdate("UPDATE item SET units_sold = units_sold + ?, revenue = revenue + ? WHERE id = ?",
+                totals.entrySet(), totals.size(), (ps, entry) -> {
+                    ps.setLong(1, entry.getValue().units);
+                    ps.setDouble(2, entry.getValue().revenue);
+                    ps.setLong(3, entry.getKey());
+                });
+        Set<Long> itemIds = Set.copyOf(totals.keySet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemIds.forEach(id -> entityManagerFactory.getCache().evict(Item.class, id));
+            }
+        });
+        versions.catalogChanged(); // unitsSold is part of the item JSON
+        return totals.size();
+    }
+
+    /**
+     * Drop buffered bills and recompute every counter from bill history up to the highest bill id
+     * seen now; the outbox counts anything committed after that.
+     */
+    public int resyncFromHistory() {
+        resyncLock.writeLock().lock();
+        try {
+            current = new Generation();
+            Long maxId = billRepository.findMaxId();
+            Long maxArchivedId = archivedBillRepository.findMaxId();
+            resyncedUpTo = Math.max(maxId == null ? 0L : maxId, maxArchivedId == null ? 0L : maxArchivedId);
+            int updated = itemRepository.resyncSalesFromHistory(resyncedUpTo);
+            versions.catalogChanged();
+            return updated;
+        } finally {
+            resyncLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
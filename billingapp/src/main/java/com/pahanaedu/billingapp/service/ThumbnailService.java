@@ -0,0 +1,220 @@
+package com.pahanaedu.billingapp.service;
+
+import com.pahanaedu.billingapp.repository.ItemRepository;
+import com.pahanaedu.billingapp.util.ImageVariants;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized cover images in the background after an upload.
+ * Work runs on a small bounded pool; when the queue is full the job is dropped and the
+ * catalog keeps using the original image, so uploads never wait on resizing. Items only advertise
+ * derivatives once they exist (ImageVariantRegistry); at startup the images items refer to
+ * are checked on disk, and any missing derivatives are generated one by one in the background.
+ */
+@Service
+@Slf4j
+public class ThumbnailService {
+
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final String UPLOADS_PATH = "/uploads/";
+
+    private final ImageStorageService imageStorageService;
+    private final ItemRepository itemRepository;
+    private final ResourceVersionService versions;
+    private final ImageVariantRegistry imageVariants;
+    private final ThreadPoolExecutor executor;
+
+    public ThumbnailService(ImageStorageService imageStorageService,
+                            ItemRepository itemRepository,
+                            ResourceVersionService versions,
+                            ImageVariantRegistry imageVariants,
+                            @Value("${app.thumbnails.threads:2}") int threads,
+                            @Value("${app.thumbnails.queue-capacity:100}") int queueCapacity) {
+        this.imageStorageService = imageStorageService;
+        this.itemRepository = itemRepository;
+        this.versions = versions;
+        this.imageVariants = imageVariants;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "thumbnail-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queue derivative generation for a stored upload. Returns false if the queue is full.
+     */
+    public boolean enqueue(String filename) {
+        try {
+            executor.execute(() -> generate(filename));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Thumbnail queue full, skipping derivatives for {}", filename);
+            return false;
+        }
+    }
+
+    // Off the request path and the bounded queue: a large catalog must not crowd out fresh uploads
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Thread.ofPlatform().name("thumbnail-backfill").daemon().start(() -> {
+            for (Object[] row : itemRepository.countImageReferences()) {
+                String url = (String) row[0];
+                int idx = url.lastIndexOf(UPLOADS_PATH);
+                if (idx >= 0) {
+                    generate(url.substring(idx + UPLOADS_PATH.length()));
+                }
+            }
+        });
+    }
+
+    void generate(String filename) {
+        try {
+            Path dir = imageStorageService.uploadRoot();
+            Path original = dir.resolve(filename);
+            if (ImageVariants.variantName(filename, ImageVariants.WIDTHS[0]) == null || !Files.exists(original)) {
+                return;
+            }
+            if (Arrays.stream(ImageVariants.WIDTHS)
+                    .allMatch(width -> Files.exists(dir.resolve(ImageVariants.variantName(filename, width))))) {
+                // deduplicated upload or restart, derivatives already there; touch them so the upload
+                // GC doesn't take them from an original that has just been stored again
+                FileTime now = FileTime.from(Instant.now());
+                for (int width : ImageVariants.WIDTHS) {
+                    Files.setLastModifiedTime(dir.resolve(ImageVariants.variantName(filename, width)), now);
+                }
+                imageVariants.markAvailable(filename);
+                return;
+            }
+
+            BufferedImage source = read(original, ImageVariants.WIDTHS[ImageVariants.WIDTHS.length - 1]);
+            if (source == null) {
+                log.warn("ImageIO cannot decode {}, no thumbnails generated", filename);
+                return;
+            }
+
+            for (int width : ImageVariants.WIDTHS) {
+                String variant = ImageVariants.variantName(filename, width);
+                boolean jpeg = variant.endsWith(".jpg");
+                BufferedImage scaled = source.getWidth() > width ? scale(source, width, jpeg) : source;
+
+                Path tmp = imageStorageService.incomingRoot().resolve(variant + ".tmp");
+                Files.deleteIfExists(tmp);
+                write(scaled, jpeg, tmp);
+                ImageStorageService.fsync(tmp);
+                ImageStorageService.moveAtomically(tmp, dir.resolve(variant));
+            }
+            imageVariants.markAvailable(filename);
+            versions.catalogChanged(); // item JSON now lists the variants
+            log.debug("Generated thumbnails for {}", filename);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate thumbnails for {}: {}", filename, e.getMessage());
+        }
+    }
+
+    // Decode with source subsampling so a huge original never needs a full-size raster
+    private static BufferedImage read(Path file, int largestTarget) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int subsampling = Math.max(1, reader.getWidth(0) / (largestTarget * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halve repeatedly, then one bilinear pass: close to area-averaging quality at a fraction of the cost
+    private static BufferedImage scale(BufferedImage source, int targetWidth, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(1, (int) Math.round((double) source.getHeight() * w / source.getWidth()));
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w > targetWidth);
+        return current;
+    }
+
+    private static void write(BufferedImage image, boolean jpeg, Path target) throws IOException {
+        if (!jpeg) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+            image = rgb;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
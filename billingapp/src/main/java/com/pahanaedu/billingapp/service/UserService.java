@@ -1,17 +1,34 @@
 package com.pahanaedu.billingapp.service;
 
+import com.pahanaedu.billingapp.datasource.ReplicaRead;
+import com.pahanaedu.billingapp.dto.BulkDeleteResult;
+import com.pahanaedu.billingapp.dto.UserPurchaseSummaryDTO;
+import com.pahanaedu.billingapp.event.UsersDeletedEvent;
 import com.pahanaedu.billingapp.model.Role;
 import com.pahanaedu.billingapp.model.User;
 import com.pahanaedu.billingapp.repository.RoleRepository;
 import com.pahanaedu.billingapp.repository.UserRepository;
+import com.pahanaedu.billingapp.security.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +37,10 @@ public class UserService {
     private final UserRepository userRepo;
     private final RoleRepository roleRepo;
     private final PasswordEncoder passwordEncoder;
+    private final ResourceVersionService versions;
+    private final UserDetailsCache userDetailsCache;
+    private final BillService billService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User register(String username, String password, String fullName, String email, String phone, String roleName) {
         if (userRepo.findByUsername(username).isPresent()) {
@@ -40,7 +61,9 @@ public class UserService {
         userRoles.add(role);
         user.setRoles(userRoles);
 
-        return userRepo.save(user);
+        User saved = userRepo.save(user);
+        userDetailsCache.evict(username);
+        return saved;
     }
 
     public Optional<User> findByUsername(String username) {
@@ -51,6 +74,54 @@ public class UserService {
         return userRepo.findAll();
     }
 
+    // Page of users whose username, full name, email or phone starts with q (all users if q is blank)
+    public Page<User> searchUsers(String q, Pageable pageable) {
+        String prefix = prefixPattern(q);
+        return prefix == null ? userRepo.findAll(pageable) : userRepo.searchByPrefix(prefix, pageable);
+    }
+
+    /**
+     * Admin user list rows with bill count, lifetime spend and last purchase date.
+     * sort: "spend", "bills", "recent" (all descending) or anything else for id order.
+     */
+    @ReplicaRead
+    public Page<UserPurchaseSummaryDTO> searchUserSummaries(String q, String sort, int page, int size) {
+        Sort order = switch (sort == null ? "" : sort) {
+            case "spend" -> JpaSort.unsafe(Sort.Direction.DESC, "COALESCE(SUM(b.totalAmount), 0.0)"
+                            + " + (SELECT COALESCE(SUM(ab.totalAmount), 0.0) FROM ArchivedBill ab WHERE ab.userId = u.id)")
+                    .andUnsafe(Sort.Direction.ASC, "u.id");
+            case "bills" -> JpaSort.unsafe(Sort.Direction.DESC, "COUNT(b.id)"
+                            + " + (SELECT COUNT(ab) FROM ArchivedBill ab WHERE ab.userId = u.id)")
+                    .andUnsafe(Sort.Direction.ASC, "u.id");
+            case "recent" -> JpaSort.unsafe(Sort.Direction.DESC, "COALESCE(MAX(b.billDate),"
+                            + " (SELECT MAX(ab.billDate) FROM ArchivedBill ab WHERE ab.userId = u.id))")
+                    .andUnsafe(Sort.Direction.ASC, "u.id");
+            default -> Sort.by("id");
+        };
+        return userRepo.findPurchaseSummaries(prefixPattern(q), PageRequest.of(page, size, order));
+    }
+
+    // Users by id with their roles (batch-fetched), for decorating a page of summaries
+    public Map<Long, User> findUsersById(Collection<Long> ids) {
+        return userRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    // LIKE pattern for a case-insensitive prefix match ('!' escapes wildcards); null when q is blank
+    private static String prefixPattern(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        return q.trim()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+    }
+
+    public long countUsers() {
+        return userRepo.count();
+    }
+
     public User getUserById(Long id) {
         return userRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
@@ -75,7 +146,10 @@ public class UserService {
         user.setEmail(email.trim());
         user.setPhone(phone.trim());
         
-        return userRepo.save(user);
+        User saved = userRepo.save(user);
+        userDetailsCache.evict(saved.getUsername());
+        versions.usersChanged();
+        return saved;
     }
 
     public void changePassword(Long userId, String currentPassword, String newPassword) {
@@ -103,20 +177,52 @@ public class UserService {
         // Update password
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepo.save(user);
+        userDetailsCache.evict(user.getUsername());
+        versions.usersChanged();
     }
 
     // Delete user by ID (admin only)
+    @Transactional
     public void deleteUser(Long userId) {
         User user = getUserById(userId);
         
         // Check if user has admin role
-        boolean isAdmin = user.getRoles().stream()
-                .anyMatch(role -> "ROLE_ADMIN".equals(role.getName()) || "ADMIN".equals(role.getName()));
-        
-        if (isAdmin) {
+        if (isAdmin(user)) {
             throw new IllegalArgumentException("Cannot delete admin users");
         }
         
-        userRepo.deleteById(userId);
+        // Bills go set-based first, so the User.bills cascade finds nothing to load
+        billService.deleteBillsByUser(userId, false);
+        userRepo.delete(user);
+        userDetailsCache.evict(user.getUsername());
+        versions.usersChanged();
+        versions.billsChanged();
+        eventPublisher.publishEvent(new UsersDeletedEvent(List.of(userId)));
+    }
+
+    // Bulk delete users (admin accounts and unknown ids are skipped) with all their bills
+    @Transactional
+    public BulkDeleteResult deleteUsers(Collection<Long> userIds, boolean restoreStock) {
+        BulkDeleteResult result = BulkDeleteResult.NONE;
+        List<Long> deletedIds = new ArrayList<>();
+        for (User user : userRepo.findAllById(userIds)) {
+            if (isAdmin(user)) {
+                continue;
+            }
+            result = result.plus(billService.deleteBillsByUser(user.getId(), restoreStock));
+            userRepo.delete(user);
+            userDetailsCache.evict(user.getUsername());
+            deletedIds.add(user.getId());
+        }
+        if (!deletedIds.isEmpty()) {
+            versions.usersChanged();
+            eventPublisher.publishEvent(new UsersDeletedEvent(deletedIds));
+        }
+        return result.withUsers(deletedIds.size());
+    }
+
+    private static boolean isAdmin(User user) {
+        return user.getRoles().stream()
+                .anyMatch(role -> "ROLE_ADMIN".equals(role.getName()) || "ADMIN".equals(role.getName()));
     }
 }
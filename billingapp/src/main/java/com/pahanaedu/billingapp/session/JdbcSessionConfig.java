@@ -0,0 +1,39 @@
+package com.pahanaedu.billingapp.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+
+import java.time.Duration;
+
+/**
+ * Replaces the container's in-memory HttpSession with {@link JdbcSessionRepository} when
+ * app.session.store=jdbc. The cookie keeps the JSESSIONID name and raw id format the
+ * Thymeleaf pages and React client already use.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc")
+@EnableSpringHttpSession
+public class JdbcSessionConfig {
+
+    @Bean
+    public JdbcSessionRepository sessionRepository(JdbcTemplate jdbcTemplate,
+                                                   @Value("${server.servlet.session.timeout:30m}") Duration timeout) {
+        return new JdbcSessionRepository(jdbcTemplate, timeout);
+    }
+
+    @Bean
+    public CookieSerializer cookieSerializer(@Value("${app.security.token.cookie-secure:false}") boolean secure) {
+        DefaultCookieSerializer serializer = new DefaultCookieSerializer();
+        serializer.setCookieName("JSESSIONID");
+        serializer.setUseBase64Encoding(false);
+        serializer.setSameSite("Lax");
+        serializer.setUseSecureCookie(secure);
+        return serializer;
+    }
+}
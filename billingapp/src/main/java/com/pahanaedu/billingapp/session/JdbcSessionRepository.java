@@ -0,0 +1,171 @@
+package com.pahanaedu.billingapp.session;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session store backed by the app_session table (V8__app_session.sql) in the application
+ * datasource, so any node behind the load balancer can serve any JSESSIONID.
+ * <p>
+ * A request that only reads its session does not write to the database: the new last-access
+ * time is queued and written in one JDBC batch per flush interval. Rows are only rewritten
+ * when attributes change (login, logout, flash attributes). Expired rows are removed by a
+ * scheduled sweep rather than on the request path.
+ */
+@Slf4j
+public class JdbcSessionRepository implements SessionRepository<StoredSession> {
+
+    private static final String SELECT = "SELECT creation_time, last_access_time, max_inactive_seconds, attributes "
+            + "FROM app_session WHERE session_id = ?";
+    private static final String INSERT = "INSERT INTO app_session (session_id, principal_name, creation_time, "
+            + "last_access_time, max_inactive_seconds, expiry_time, attributes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_ID = "UPDATE app_session SET session_id = ? WHERE session_id = ?";
+    private static final String UPDATE_ATTRIBUTES = "UPDATE app_session SET principal_name = ?, last_access_time = ?, "
+            + "max_inactive_seconds = ?, expiry_time = ?, attributes = ? WHERE session_id = ?";
+    private static final String UPDATE_ACCESS = "UPDATE app_session SET last_access_time = ?, expiry_time = ? "
+            + "WHERE session_id = ? AND last_access_time < ?";
+    private static final String DELETE = "DELETE FROM app_session WHERE session_id = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM app_session WHERE expiry_time < ?";
+
+    private static final String SECURITY_CONTEXT_ATTRIBUTE = "SPRING_SECURITY_CONTEXT";
+
+    private final JdbcTemplate jdbc;
+    private final Duration defaultMaxInactiveInterval;
+
+    // session id -> last access not yet written; drained by flushAccessTimes()
+    private final Map<String, PendingAccess> pendingAccess = new ConcurrentHashMap<>();
+
+    private record PendingAccess(long lastAccessTime, long expiryTime) {
+    }
+
+    public JdbcSessionRepository(JdbcTemplate jdbc, Duration defaultMaxInactiveInterval) {
+        this.jdbc = jdbc;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+    }
+
+    @Override
+    public StoredSession createSession() {
+        Instant now = Instant.now();
+        return new StoredSession(StoredSession.generateId(), true, Map.of(), now, now, defaultMaxInactiveInterval);
+    }
+
+    @Override
+    public void save(StoredSession session) {
+        long expiry = toMillis(session.getExpiryTime());
+        if (session.isNew()) {
+            // also covers an id rotated before the first save (login on a brand-new session)
+            jdbc.update(INSERT, session.getId(), principalName(session),
+                    session.getCreationTime().toEpochMilli(), session.getLastAccessedTime().toEpochMilli(),
+                    (int) session.getMaxInactiveInterval().toSeconds(), expiry,
+                    SessionAttributeCodec.encode(session.getAttributes()));
+            session.markSaved();
+            return;
+        }
+        boolean idChanged = !session.getOriginalId().equals(session.getId());
+        if (idChanged) {
+            pendingAccess.remove(session.getOriginalId());
+            jdbc.update(UPDATE_ID, session.getId(), session.getOriginalId());
+        }
+        if (session.isAttributesChanged()) {
+            pendingAccess.remove(session.getId());
+            jdbc.update(UPDATE_ATTRIBUTES, principalName(session), session.getLastAccessedTime().toEpochMilli(),
+                    (int) session.getMaxInactiveInterval().toSeconds(), expiry,
+                    SessionAttributeCodec.encode(session.getAttributes()), session.getId());
+            session.markSaved();
+        } else {
+            if (idChanged) {
+                session.markSaved();
+            }
+            pendingAccess.put(session.getId(),
+                    new PendingAccess(session.getLastAccessedTime().toEpochMilli(), expiry));
+        }
+    }
+
+    @Override
+    public StoredSession findById(String id) {
+        List<StoredSession> rows = jdbc.query(SELECT, (rs, rowNum) -> new StoredSession(
+                id,
+                false,
+                SessionAttributeCodec.decode(rs.getBytes("attributes")),
+                Instant.ofEpochMilli(rs.getLong("creation_time")),
+                Instant.ofEpochMilli(rs.getLong("last_access_time")),
+                Duration.ofSeconds(rs.getInt("max_inactive_seconds"))), id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        StoredSession session = rows.get(0);
+        PendingAccess pending = pendingAccess.get(id);
+        if (pending != null && pending.lastAccessTime() > session.getLastAccessedTime().toEpochMilli()) {
+            session.setLastAccessedTime(Instant.ofEpochMilli(pending.lastAccessTime()));
+        }
+        if (session.isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        pendingAccess.remove(id);
+        jdbc.update(DELETE, id);
+    }
+
+    /**
+     * Write queued last-access times in one batch. Guarded by last_access_time so a stale value
+     * from this node never rolls back a newer one written by another.
+     */
+    @Scheduled(fixedDelayString = "${app.session.access-flush-interval-ms:5000}")
+    public void flushAccessTimes() {
+        if (pendingAccess.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (String id : List.copyOf(pendingAccess.keySet())) {
+            PendingAccess access = pendingAccess.remove(id);
+            if (access != null) {
+                batch.add(new Object[]{access.lastAccessTime(), access.expiryTime(), id, access.lastAccessTime()});
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(UPDATE_ACCESS, batch);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.cleanup-interval-ms:60000}")
+    public void deleteExpiredSessions() {
+        int deleted = jdbc.update(DELETE_EXPIRED, System.currentTimeMillis());
+        if (deleted > 0) {
+            log.debug("Removed {} expired sessions", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAccessTimes();
+    }
+
+    private static String principalName(StoredSession session) {
+        Object context = session.getAttribute(SECURITY_CONTEXT_ATTRIBUTE);
+        if (context instanceof SecurityContext sc
+                && sc.getAuthentication() != null) {
+            return sc.getAuthentication().getName();
+        }
+        return null;
+    }
+
+    private static long toMillis(Instant instant) {
+        return instant == Instant.MAX ? Long.MAX_VALUE : instant.toEpochMilli();
+    }
+}
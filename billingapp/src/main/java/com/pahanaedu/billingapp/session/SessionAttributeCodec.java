@@ -0,0 +1,147 @@
+package com.pahanaedu.billingapp.session;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of session attributes for the app_session table.
+ * A logged-in SecurityContext is stored as username + authority names (a few dozen bytes)
+ * instead of a Java-serialized object graph; anything else (flash maps, CSRF tokens) falls
+ * back to Java serialization.
+ */
+final class SessionAttributeCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte TAG_SERIALIZED = 0;
+    private static final byte TAG_SECURITY_CONTEXT = 1;
+
+    private SessionAttributeCodec() {
+    }
+
+    static byte[] encode(Map<String, Object> attributes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(attributes.size());
+            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                Object value = entry.getValue();
+                if (isCompactSecurityContext(value)) {
+                    out.writeByte(TAG_SECURITY_CONTEXT);
+                    writeSecurityContext(out, (SecurityContext) value);
+                } else {
+                    out.writeByte(TAG_SERIALIZED);
+                    byte[] serialized = serialize(entry.getKey(), value);
+                    out.writeInt(serialized.length);
+                    out.write(serialized);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode session attributes", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Map<String, Object> decode(byte[] data) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (data == null || data.length == 0) {
+            return attributes;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unknown session format version " + version);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte tag = in.readByte();
+                if (tag == TAG_SECURITY_CONTEXT) {
+                    attributes.put(name, readSecurityContext(in));
+                } else {
+                    byte[] serialized = new byte[in.readInt()];
+                    in.readFully(serialized);
+                    attributes.put(name, deserialize(serialized));
+                }
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Could not decode session attributes", e);
+        }
+        return attributes;
+    }
+
+    /**
+     * Only plain username/password logins are compacted; anything richer keeps its full form.
+     */
+    private static boolean isCompactSecurityContext(Object value) {
+        if (!(value instanceof SecurityContext context)) {
+            return false;
+        }
+        Authentication auth = context.getAuthentication();
+        return auth instanceof UsernamePasswordAuthenticationToken
+                && auth.isAuthenticated()
+                && auth.getPrincipal() instanceof UserDetails;
+    }
+
+    private static void writeSecurityContext(DataOutputStream out, SecurityContext context) throws IOException {
+        Authentication auth = context.getAuthentication();
+        out.writeUTF(((UserDetails) auth.getPrincipal()).getUsername());
+        List<String> authorities = new ArrayList<>();
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        out.writeShort(authorities.size());
+        for (String authority : authorities) {
+            out.writeUTF(authority);
+        }
+    }
+
+    private static SecurityContext readSecurityContext(DataInputStream in) throws IOException {
+        String username = in.readUTF();
+        int count = in.readShort();
+        List<GrantedAuthority> authorities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            authorities.add(new SimpleGrantedAuthority(in.readUTF()));
+        }
+        User principal = new User(username, "", authorities);
+        return new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities));
+    }
+
+    private static byte[] serialize(String name, Object value) throws IOException {
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Session attribute '" + name + "' is not serializable: "
+                    + value.getClass().getName());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        }
+    }
+}
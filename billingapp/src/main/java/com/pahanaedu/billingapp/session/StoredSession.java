@@ -0,0 +1,124 @@
+package com.pahanaedu.billingapp.session;
+
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Session loaded from (or about to be written to) the app_session table.
+ * Tracks what changed during the request so the repository can skip writes that only
+ * touch the last-access time.
+ */
+class StoredSession implements Session {
+
+    private String id;
+    private String originalId;
+    private boolean isNew;
+    private final Map<String, Object> attributes;
+    private final Instant creationTime;
+    private Instant lastAccessedTime;
+    private Duration maxInactiveInterval;
+    private boolean attributesChanged;
+
+    StoredSession(String id, boolean isNew, Map<String, Object> attributes, Instant creationTime,
+                  Instant lastAccessedTime, Duration maxInactiveInterval) {
+        this.id = id;
+        this.originalId = id;
+        this.isNew = isNew;
+        this.attributes = new HashMap<>(attributes);
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+    }
+
+    static String generateId() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Override
+    public String getId() { return id; }
+
+    String getOriginalId() { return originalId; }
+
+    boolean isNew() { return isNew; }
+
+    boolean isAttributesChanged() { return attributesChanged; }
+
+    Map<String, Object> getAttributes() { return attributes; }
+
+    /**
+     * Called after the row has been written, so a second save in the same request is an update.
+     */
+    void markSaved() {
+        this.originalId = id;
+        this.isNew = false;
+        this.attributesChanged = false;
+    }
+
+    @Override
+    public String changeSessionId() {
+        this.id = generateId();
+        return this.id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String attributeName) {
+        return (T) attributes.get(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return attributes.keySet();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        if (attributeValue == null) {
+            removeAttribute(attributeName);
+            return;
+        }
+        attributes.put(attributeName, attributeValue);
+        attributesChanged = true;
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        if (attributes.remove(attributeName) != null) {
+            attributesChanged = true;
+        }
+    }
+
+    @Override
+    public Instant getCreationTime() { return creationTime; }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) { this.lastAccessedTime = lastAccessedTime; }
+
+    @Override
+    public Instant getLastAccessedTime() { return lastAccessedTime; }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        this.maxInactiveInterval = interval;
+        attributesChanged = true; // expiry column must be rewritten
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() { return maxInactiveInterval; }
+
+    @Override
+    public boolean isExpired() {
+        return !maxInactiveInterval.isNegative()
+                && Instant.now().isAfter(lastAccessedTime.plus(maxInactiveInterval));
+    }
+
+    Instant getExpiryTime() {
+        return maxInactiveInterval.isNegative() ? Instant.MAX : lastAccessedTime.plus(maxInactiveInterval);
+    }
+}
@@ -0,0 +1,31 @@
+package com.pahanaedu.billingapp.util;
+
+import java.util.Locale;
+
+/**
+ * Naming scheme for resized cover images stored next to the original upload:
+ * "cover.jpg" gets "cover-w160.jpg", "cover-w320.jpg", ... GIF and PNG originals get PNG
+ * derivatives; formats ImageIO cannot decode (WebP) get none. Which originals have their
+ * derivatives on disk is tracked by ImageVariantRegistry.
+ */
+public final class ImageVariants {
+
+    public static final int[] WIDTHS = {160, 320, 640};
+
+    private ImageVariants() {}
+
+    /**
+     * Derivative file name for the given width, or null if the format has no derivatives.
+     */
+    public static String variantName(String filename, int width) {
+        int dot = filename.lastIndexOf('.');
+        if (dot <= 0) return null;
+        String base = filename.substring(0, dot);
+        String extension = filename.substring(dot).toLowerCase(Locale.ROOT);
+        return switch (extension) {
+            case ".jpg", ".jpeg" -> base + "-w" + width + ".jpg";
+            case ".png", ".gif" -> base + "-w" + width + ".png";
+            default -> null;
+        };
+    }
+}
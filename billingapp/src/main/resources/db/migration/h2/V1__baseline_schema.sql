@@ -0,0 +1,55 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Databases that already have
+-- these tables are baselined at version 1 and skip this script.
+
+CREATE TABLE roles (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE users (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username  VARCHAR(255),
+    password  VARCHAR(255),
+    full_name VARCHAR(255),
+    email     VARCHAR(255),
+    phone     VARCHAR(255)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE TABLE item (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255)     NOT NULL,
+    description VARCHAR(2000),
+    price       DOUBLE PRECISION NOT NULL,
+    stock       INTEGER          NOT NULL,
+    category    VARCHAR(60),
+    image_url   VARCHAR(500),
+    language    VARCHAR(50),
+    book_type   VARCHAR(100)
+);
+
+CREATE TABLE bill (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    bill_date    TIMESTAMP(6),
+    total_amount DOUBLE PRECISION NOT NULL,
+    user_id      BIGINT,
+    CONSTRAINT fk_bill_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE bill_item (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    quantity   INTEGER          NOT NULL,
+    unit_price DOUBLE PRECISION NOT NULL,
+    subtotal   DOUBLE PRECISION NOT NULL,
+    bill_id    BIGINT,
+    item_id    BIGINT,
+    CONSTRAINT fk_bill_item_bill FOREIGN KEY (bill_id) REFERENCES bill (id),
+    CONSTRAINT fk_bill_item_item FOREIGN KEY (item_id) REFERENCES item (id)
+);
@@ -0,0 +1,11 @@
+-- Indexes behind the hot lookups: bills by date, category filtering, login by username (unique)
+-- and the admin user search prefixes. Bills per user and lines per bill / per item are served by
+-- the indexes backing the V1 foreign keys.
+
+CREATE INDEX IF NOT EXISTS idx_bill_bill_date ON bill (bill_date);
+CREATE INDEX IF NOT EXISTS idx_item_category ON item (category);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_username ON users (username);
+CREATE INDEX IF NOT EXISTS idx_users_full_name ON users (full_name);
+CREATE INDEX IF NOT EXISTS idx_users_email ON users (email);
+CREATE INDEX IF NOT EXISTS idx_users_phone ON users (phone);
@@ -0,0 +1,26 @@
+-- Archive tier for old bills: same rows and ids as bill / bill_item, moved here in batches by
+-- BillArchiveService once they are older than app.archive.horizon. Ids are kept, so a lookup
+-- that misses the hot table can fall back to bill_archive by the same id.
+
+CREATE TABLE bill_archive (
+    id           BIGINT           PRIMARY KEY,
+    bill_date    TIMESTAMP(6),
+    total_amount DOUBLE PRECISION NOT NULL,
+    user_id      BIGINT,
+    archived_at  TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT fk_bill_archive_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE bill_item_archive (
+    id         BIGINT           PRIMARY KEY,
+    quantity   INTEGER          NOT NULL,
+    unit_price DOUBLE PRECISION NOT NULL,
+    subtotal   DOUBLE PRECISION NOT NULL,
+    bill_id    BIGINT           NOT NULL,
+    item_id    BIGINT,
+    CONSTRAINT fk_bill_item_archive_bill FOREIGN KEY (bill_id) REFERENCES bill_archive (id),
+    CONSTRAINT fk_bill_item_archive_item FOREIGN KEY (item_id) REFERENCES item (id)
+);
+
+-- user_id, bill_id and item_id lookups use the indexes H2 creates for the foreign keys
+CREATE INDEX idx_bill_archive_bill_date ON bill_archive (bill_date);
@@ -0,0 +1,18 @@
+-- Transactional outbox: follow-up work for a committed change (sales counters, recommendations),
+-- written in the same transaction as the change and delivered by OutboxDispatcher.
+-- available_at doubles as the claim lease and the retry backoff; dead_at marks rows that ran out
+-- of attempts and are kept for inspection.
+
+CREATE TABLE outbox_event (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type   VARCHAR(255)  NOT NULL,
+    payload      CLOB          NOT NULL,
+    created_at   TIMESTAMP(6)  NOT NULL,
+    available_at TIMESTAMP(6)  NOT NULL,
+    attempts     INTEGER       DEFAULT 0 NOT NULL,
+    delivered    VARCHAR(1000),
+    last_error   VARCHAR(1000),
+    dead_at      TIMESTAMP(6)
+);
+
+CREATE INDEX idx_outbox_event_available_at ON outbox_event (available_at);
@@ -0,0 +1,5 @@
+-- Per-item sales counters (SalesCounterService). Databases built by ddl-auto=update after the
+-- counters were introduced already have them, hence IF NOT EXISTS.
+
+ALTER TABLE item ADD COLUMN IF NOT EXISTS units_sold BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE item ADD COLUMN IF NOT EXISTS revenue DOUBLE PRECISION DEFAULT 0 NOT NULL;
@@ -0,0 +1,12 @@
+-- Outbox events a handler has already applied, written in the same transaction as the handler's
+-- own change, so a redelivered event (failed settle, expired lease) is not applied twice.
+-- OutboxDispatcher prunes rows older than app.outbox.handled-retention.
+
+CREATE TABLE outbox_handled (
+    event_id   BIGINT        NOT NULL,
+    handler    VARCHAR(100)  NOT NULL,
+    handled_at TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (event_id, handler)
+);
+
+CREATE INDEX idx_outbox_handled_handled_at ON outbox_handled (handled_at);
@@ -0,0 +1,60 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Databases that already have
+-- these tables are baselined at version 1 and skip this script.
+
+CREATE TABLE roles (
+    id   BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id        BIGINT NOT NULL AUTO_INCREMENT,
+    username  VARCHAR(255),
+    password  VARCHAR(255),
+    full_name VARCHAR(255),
+    email     VARCHAR(255),
+    phone     VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE item (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(2000),
+    price       DOUBLE        NOT NULL,
+    stock       INTEGER       NOT NULL,
+    category    VARCHAR(60),
+    image_url   VARCHAR(500),
+    language    VARCHAR(50),
+    book_type   VARCHAR(100),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE bill (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    bill_date    DATETIME(6),
+    total_amount DOUBLE      NOT NULL,
+    user_id      BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_bill_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE bill_item (
+    id         BIGINT  NOT NULL AUTO_INCREMENT,
+    quantity   INTEGER NOT NULL,
+    unit_price DOUBLE  NOT NULL,
+    subtotal   DOUBLE  NOT NULL,
+    bill_id    BIGINT,
+    item_id    BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_bill_item_bill FOREIGN KEY (bill_id) REFERENCES bill (id),
+    CONSTRAINT fk_bill_item_item FOREIGN KEY (item_id) REFERENCES item (id)
+) ENGINE = InnoDB;
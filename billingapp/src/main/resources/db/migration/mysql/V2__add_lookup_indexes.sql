@@ -0,0 +1,47 @@
+-- Indexes behind the hot lookups: bills by date, category filtering, login by username (unique)
+-- and the admin user search prefixes. Bills per user and lines per bill / per item are served by
+-- the indexes InnoDB keeps for the V1 foreign keys.
+-- MySQL has no CREATE INDEX IF NOT EXISTS; each index is created only when missing because
+-- schemas built by ddl-auto=update may already carry some of them.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'bill' AND index_name = 'idx_bill_bill_date') = 0,
+                'CREATE INDEX idx_bill_bill_date ON bill (bill_date)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'item' AND index_name = 'idx_item_category') = 0,
+                'CREATE INDEX idx_item_category ON item (category)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'uk_users_username') = 0,
+                'CREATE UNIQUE INDEX uk_users_username ON users (username)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_users_full_name') = 0,
+                'CREATE INDEX idx_users_full_name ON users (full_name)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_users_email') = 0,
+                'CREATE INDEX idx_users_email ON users (email)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_users_phone') = 0,
+                'CREATE INDEX idx_users_phone ON users (phone)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,30 @@
+-- Archive tier for old bills: same rows and ids as bill / bill_item, moved here in batches by
+-- BillArchiveService once they are older than app.archive.horizon. Ids are kept, so a lookup
+-- that misses the hot table can fall back to bill_archive by the same id.
+-- Compressed pages: archived rows are written once and read rarely.
+
+CREATE TABLE bill_archive (
+    id           BIGINT      NOT NULL,
+    bill_date    DATETIME(6),
+    total_amount DOUBLE      NOT NULL,
+    user_id      BIGINT,
+    archived_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_bill_archive_user_id (user_id),
+    INDEX idx_bill_archive_bill_date (bill_date),
+    CONSTRAINT fk_bill_archive_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED;
+
+CREATE TABLE bill_item_archive (
+    id         BIGINT  NOT NULL,
+    quantity   INTEGER NOT NULL,
+    unit_price DOUBLE  NOT NULL,
+    subtotal   DOUBLE  NOT NULL,
+    bill_id    BIGINT  NOT NULL,
+    item_id    BIGINT,
+    PRIMARY KEY (id),
+    INDEX idx_bill_item_archive_bill_id (bill_id),
+    INDEX idx_bill_item_archive_item_id (item_id),
+    CONSTRAINT fk_bill_item_archive_bill FOREIGN KEY (bill_id) REFERENCES bill_archive (id),
+    CONSTRAINT fk_bill_item_archive_item FOREIGN KEY (item_id) REFERENCES item (id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED;
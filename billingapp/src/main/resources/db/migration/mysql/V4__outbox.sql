@@ -0,0 +1,18 @@
+-- Transactional outbox: follow-up work for a committed change (sales counters, recommendations),
+-- written in the same transaction as the change and delivered by OutboxDispatcher.
+-- available_at doubles as the claim lease and the retry backoff; dead_at marks rows that ran out
+-- of attempts and are kept for inspection.
+
+CREATE TABLE outbox_event (
+    id           BIGINT        NOT NULL AUTO_INCREMENT,
+    event_type   VARCHAR(255)  NOT NULL,
+    payload      MEDIUMTEXT    NOT NULL,
+    created_at   DATETIME(6)   NOT NULL,
+    available_at DATETIME(6)   NOT NULL,
+    attempts     INTEGER       NOT NULL DEFAULT 0,
+    delivered    VARCHAR(1000),
+    last_error   VARCHAR(1000),
+    dead_at      DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_outbox_event_available_at (available_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,16 @@
+-- Per-item sales counters (SalesCounterService). Databases built by ddl-auto=update after the
+-- counters were introduced already have them, so each column is added only when missing.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = 'item' AND column_name = 'units_sold') = 0,
+                'ALTER TABLE item ADD COLUMN units_sold BIGINT NOT NULL DEFAULT 0', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = 'item' AND column_name = 'revenue') = 0,
+                'ALTER TABLE item ADD COLUMN revenue DOUBLE NOT NULL DEFAULT 0', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,14 @@
+-- Change counters behind the catalog and bill ETags (ResourceVersionService). Writers bump one
+-- slot row in their own transaction; a tag is the sum over the slots, so it is the same on every
+-- node and survives restarts. The slot count must match ResourceVersionService.SLOTS.
+
+CREATE TABLE resource_version (
+    slot            INTEGER  NOT NULL,
+    catalog_version BIGINT   NOT NULL DEFAULT 0,
+    bills_version   BIGINT   NOT NULL DEFAULT 0,
+    users_version   BIGINT   NOT NULL DEFAULT 0,
+    PRIMARY KEY (slot)
+) ENGINE = InnoDB;
+
+INSERT INTO resource_version (slot) VALUES
+    (0), (1), (2), (3), (4), (5), (6), (7), (8), (9), (10), (11), (12), (13), (14), (15);
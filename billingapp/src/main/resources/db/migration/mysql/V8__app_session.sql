@@ -0,0 +1,15 @@
+-- Shared JSESSIONID store used when app.session.store=jdbc (JdbcSessionRepository). Created on
+-- every database so switching the store needs no schema step; it stays empty otherwise.
+-- IF NOT EXISTS adopts the table earlier builds created at startup.
+
+CREATE TABLE IF NOT EXISTS app_session (
+    session_id           VARCHAR(64)   NOT NULL,
+    principal_name       VARCHAR(100),
+    creation_time        BIGINT        NOT NULL,
+    last_access_time     BIGINT        NOT NULL,
+    max_inactive_seconds INT           NOT NULL,
+    expiry_time          BIGINT        NOT NULL,
+    attributes           BLOB,
+    PRIMARY KEY (session_id),
+    INDEX idx_app_session_expiry (expiry_time)
+) ENGINE = InnoDB;
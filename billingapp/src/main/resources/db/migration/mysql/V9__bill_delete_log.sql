@@ -0,0 +1,10 @@
+-- One row per bulk bill delete, written in the deleting transaction. Every node polls the highest
+-- id and rebuilds its in-memory recommendation matrix when it grows (RecommendationService).
+-- Rows are tiny and rare, so they are kept.
+
+CREATE TABLE bill_delete_log (
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    bill_count INTEGER       NOT NULL,
+    deleted_at DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
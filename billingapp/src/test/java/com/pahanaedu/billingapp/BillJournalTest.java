@@ -0,0 +1,88 @@
+package com.pahanaedu.billingapp;
+
+import com.pahanaedu.billingapp.journal.BillJournal;
+import com.pahanaedu.billingapp.journal.JournalEntry;
+import com.pahanaedu.billingapp.journal.JournalEvent;
+import com.pahanaedu.billingapp.journal.JournalReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BillJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private BillJournal open(DataSize segmentSize) throws Exception {
+        BillJournal journal = new BillJournal(true, dir, segmentSize, Duration.ofMillis(1), true,
+                new SimpleMeterRegistry());
+        journal.open();
+        return journal;
+    }
+
+    private List<JournalEntry> readAll() {
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.replay(dir, 0, entries::add);
+        return entries;
+    }
+
+    @Test
+    public void testRecordsRoundTripAcrossSegmentsAndRestarts() throws Exception {
+        BillJournal journal = open(DataSize.ofKilobytes(1));
+        for (int i = 0; i < 50; i++) {
+            journal.append(new JournalEvent.BillCreated(i, 7, List.of(new JournalEvent.BillCreated.Line(3, 2, 19.5))));
+        }
+        journal.append(new JournalEvent.BillsDeleted(List.of(1L, 2L), true));
+        journal.close();
+
+        assertTrue(JournalReader.segments(dir).size() > 1, "1 KB segments should have rolled");
+
+        BillJournal reopened = open(DataSize.ofKilobytes(1));
+        assertEquals(52, reopened.append(new JournalEvent.StockSet(3, 40)) + 1);
+        reopened.close();
+
+        List<JournalEntry> entries = readAll();
+        assertEquals(52, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i, entries.get(i).sequence());
+        }
+        assertEquals(new JournalEvent.BillCreated(0, 7, List.of(new JournalEvent.BillCreated.Line(3, 2, 19.5))),
+                entries.get(0).event());
+        assertEquals(new JournalEvent.BillsDeleted(List.of(1L, 2L), true), entries.get(50).event());
+        assertEquals(new JournalEvent.StockSet(3, 40), entries.get(51).event());
+    }
+
+    @Test
+    public void testTornRecordIsDroppedAndOverwritten() throws Exception {
+        BillJournal journal = open(DataSize.ofKilobytes(64));
+        journal.append(new JournalEvent.StockSet(1, 10));
+        journal.append(new JournalEvent.StockSet(2, 20));
+        journal.close();
+
+        // corrupt one byte of the second record's body, as a crash mid-write would
+        Path segment = JournalReader.segments(dir).get(0);
+        JournalReader.SegmentEnd end = JournalReader.scan(segment, entry -> { });
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(end.position() - 1);
+            file.write(0x5A);
+        }
+        assertEquals(1, readAll().size());
+
+        BillJournal reopened = open(DataSize.ofKilobytes(64));
+        assertEquals(1, reopened.append(new JournalEvent.StockSet(3, 30)));
+        reopened.close();
+
+        List<JournalEntry> entries = readAll();
+        assertEquals(2, entries.size());
+        assertEquals(new JournalEvent.StockSet(3, 30), entries.get(1).event());
+    }
+}
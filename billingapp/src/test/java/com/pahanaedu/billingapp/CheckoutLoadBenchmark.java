@@ -0,0 +1,130 @@
+package com.pahanaedu.billingapp;
+
+import com.pahanaedu.billingapp.dto.BillDTO;
+import com.pahanaedu.billingapp.dto.BillItemDTO;
+import com.pahanaedu.billingapp.service.BillService;
+import com.pahanaedu.billingapp.service.ItemService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Platform-thread pool vs virtual threads under a checkout-heavy mix (60% checkout, 30% catalog,
+ * 10% password check), against the real services and the configured connection pool. The
+ * platform run uses a fixed pool the size of Tomcat's default (200 threads); the virtual run
+ * starts one virtual thread per request. Each request's latency includes its queueing time.
+ * Not part of the normal build:
+ * <pre>
+ * mvn test -Dtest=CheckoutLoadBenchmark -Dbenchmark=true [-Dbenchmark.requests=20000]
+ * </pre>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:checkout_bench;DB_CLOSE_DELAY=-1;MODE=MySQL;IGNORECASE=TRUE")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CheckoutLoadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int ITEMS = 200;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int requests = Integer.getInteger("benchmark.requests", 10_000);
+    private long userId;
+    private String passwordHash;
+
+    @BeforeAll
+    public void seed() {
+        jdbcTemplate.update("INSERT INTO users (username, password) VALUES ('bench', 'x')");
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'bench'", Long.class);
+        for (int i = 0; i < ITEMS; i++) {
+            jdbcTemplate.update("INSERT INTO item (name, price, stock) VALUES (?, ?, ?)",
+                    "Bench title " + i, 10.0 + i, 1_000_000);
+        }
+        passwordHash = passwordEncoder.encode("bench-password");
+    }
+
+    @Test
+    public void compareThreadModes() throws Exception {
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM item", Long.class);
+        run("warm-up", Executors.newFixedThreadPool(PLATFORM_THREADS), itemIds, requests / 5);
+        String platform = run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), itemIds, requests);
+        String virtual = run("virtual", Executors.newVirtualThreadPerTaskExecutor(), itemIds, requests);
+        System.out.println(platform);
+        System.out.println(virtual);
+    }
+
+    private String run(String mode, ExecutorService executor, List<Long> itemIds, int count) throws Exception {
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<Long>> futures = new ArrayList<>(count);
+        long started = System.nanoTime();
+        try (executor) {
+            for (int i = 0; i < count; i++) {
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    try {
+                        oneRequest(itemIds);
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                    return System.nanoTime() - submitted;
+                }));
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            latencies[i] = futures.get(i).get();
+        }
+        Arrays.sort(latencies);
+        assertTrue(errors.get() < count / 100, mode + ": too many failed requests (" + errors.get() + ")");
+        return String.format("%-8s %6d requests  %8.1f req/s  p50 %7.1f ms  p99 %7.1f ms  errors %d",
+                mode, count, count * 1e9 / elapsed,
+                latencies[count / 2] / 1e6, latencies[(int) (count * 0.99)] / 1e6, errors.get());
+    }
+
+    private void oneRequest(List<Long> itemIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(100);
+        if (pick < 60) {
+            Long first = itemIds.get(random.nextInt(itemIds.size()));
+            Long second = itemIds.get(random.nextInt(itemIds.size()));
+            List<BillItemDTO> lines = first.equals(second)
+                    ? List.of(new BillItemDTO(first, 2))
+                    : List.of(new BillItemDTO(first, 1), new BillItemDTO(second, 1));
+            billService.createBill(new BillDTO(userId, lines));
+        } else if (pick < 90) {
+            itemService.getAllItems();
+        } else {
+            passwordEncoder.matches("bench-password", passwordHash);
+        }
+    }
+}
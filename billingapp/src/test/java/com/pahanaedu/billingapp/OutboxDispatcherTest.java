@@ -0,0 +1,91 @@
+package com.pahanaedu.billingapp;
+
+import com.pahanaedu.billingapp.outbox.Outbox;
+import com.pahanaedu.billingapp.outbox.OutboxDispatcher;
+import com.pahanaedu.billingapp.outbox.OutboxHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the dispatcher by hand (its background thread is off) with one handler that fails once.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox_test;DB_CLOSE_DELAY=-1;MODE=MySQL;IGNORECASE=TRUE",
+        "app.outbox.enabled=false"
+})
+@ActiveProfiles("test")
+public class OutboxDispatcherTest {
+
+    public record Ping(long id) {}
+
+    @TestConfiguration
+    static class Handlers {
+        static final List<Long> steady = new CopyOnWriteArrayList<>();
+        static final AtomicInteger flakyCalls = new AtomicInteger();
+
+        @Bean
+        OutboxHandler<Ping> steadyHandler() {
+            return new OutboxHandler<>("steady", Ping.class, (eventId, ping) -> steady.add(ping.id()));
+        }
+
+        @Bean
+        OutboxHandler<Ping> flakyHandler() {
+            return new OutboxHandler<>("flaky", Ping.class, (eventId, ping) -> {
+                if (flakyCalls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("not yet");
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testRolledBackEventIsNeverDeliveredAndFailedHandlerIsRetriedAlone() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.add(new Ping(1));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> outbox.add(new Ping(2)));
+
+        assertEquals(1, dispatcher.dispatchBatch());
+        assertEquals(List.of(2L), Handlers.steady);
+        assertEquals("steady", jdbcTemplate.queryForObject("SELECT delivered FROM outbox_event", String.class));
+
+        // backoff pending: nothing is due
+        assertEquals(0, dispatcher.dispatchBatch());
+
+        jdbcTemplate.update("UPDATE outbox_event SET available_at = DATEADD('MINUTE', -1, LOCALTIMESTAMP)");
+        assertEquals(1, dispatcher.dispatchBatch());
+        assertEquals(List.of(2L), Handlers.steady, "a handler that already succeeded must not run again");
+        assertEquals(2, Handlers.flakyCalls.get());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Integer.class));
+    }
+
+    @Test
+    public void testAddOutsideTransactionIsRejected() {
+        assertThrows(RuntimeException.class, () -> outbox.add(new Ping(3)));
+    }
+}
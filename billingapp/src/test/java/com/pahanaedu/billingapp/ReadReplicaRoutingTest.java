@@ -0,0 +1,71 @@
+package com.pahanaedu.billingapp;
+
+import com.pahanaedu.billingapp.datasource.ReadYourWritesGuard;
+import com.pahanaedu.billingapp.model.Item;
+import com.pahanaedu.billingapp.service.ItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two H2 databases stand in for primary and replica. They do not replicate, so a row written
+ * through the application exists only on the primary, and which database answered is visible.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1;MODE=MySQL;IGNORECASE=TRUE",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;MODE=MySQL;IGNORECASE=TRUE",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.migrate-locations=classpath:db/migration/h2"
+})
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ReadYourWritesGuard guard;
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private boolean catalogShows(String name) {
+        return itemService.getAllItems().stream().map(Item::getName).anyMatch(name::equals);
+    }
+
+    @Test
+    public void testWritesGoToPrimaryAndReplicaReadsDoNot() {
+        // Outside a @ReplicaRead method: primary
+        jdbcTemplate.update("INSERT INTO item (name, price, stock) VALUES ('Routing probe', 1.0, 1)");
+        Integer onPrimary = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item WHERE name = 'Routing probe'", Integer.class);
+        assertEquals(1, onPrimary);
+
+        assertFalse(catalogShows("Routing probe"), "catalog page should have been read from the replica");
+    }
+
+    @Test
+    public void testPinnedUserReadsFromPrimary() {
+        jdbcTemplate.update("INSERT INTO item (name, price, stock) VALUES ('Pinned probe', 1.0, 1)");
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "cashier", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        assertFalse(catalogShows("Pinned probe"));
+        guard.pinCurrentUser();
+        assertTrue(catalogShows("Pinned probe"), "reads right after a write should see the primary");
+    }
+}
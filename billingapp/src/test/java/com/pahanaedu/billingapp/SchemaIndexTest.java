@@ -0,0 +1,64 @@
+package com.pahanaedu.billingapp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the Flyway migrations ran and that the hot lookups are planned on their indexes
+ * (H2 EXPLAIN names the index it picks in a comment after the table).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+
+    private static void assertIndexed(String plan) {
+        assertFalse(plan.contains("TABLESCAN"), "expected an index lookup, got " + plan);
+    }
+
+    @Test
+    public void testMigrationsApplied() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = TRUE", Integer.class);
+        assertNotNull(applied);
+        assertTrue(applied >= 2, "V1 and V2 migrations should have run");
+    }
+
+    @Test
+    public void testBillLookupsUseIndexes() {
+        // foreign-key columns are served by the indexes backing their constraints
+        assertIndexed(plan("SELECT * FROM bill WHERE user_id = 1"));
+        assertTrue(plan("SELECT * FROM bill WHERE bill_date >= TIMESTAMP '2024-01-01 00:00:00'")
+                .contains("IDX_BILL_BILL_DATE"));
+        assertIndexed(plan("SELECT * FROM bill_item WHERE bill_id = 1"));
+        assertIndexed(plan("SELECT * FROM bill_item WHERE item_id = 1"));
+        assertIndexed(plan("SELECT * FROM bill_archive WHERE user_id = 1"));
+        assertIndexed(plan("SELECT * FROM bill_item_archive WHERE bill_id = 1"));
+    }
+
+    @Test
+    public void testCatalogAndUserLookupsUseIndexes() {
+        assertTrue(plan("SELECT * FROM item WHERE category = 'Fiction'").contains("IDX_ITEM_CATEGORY"));
+        assertTrue(plan("SELECT * FROM users WHERE username = 'admin'").contains("UK_USERS_USERNAME"));
+        assertTrue(plan("SELECT * FROM users WHERE email LIKE 'ann%'").contains("IDX_USERS_EMAIL"));
+    }
+
+    @Test
+    public void testUsernameIsUnique() {
+        jdbcTemplate.update("INSERT INTO users (username, password) VALUES ('dup-check', 'x')");
+        assertThrows(Exception.class,
+                () -> jdbcTemplate.update("INSERT INTO users (username, password) VALUES ('dup-check', 'x')"));
+        jdbcTemplate.update("DELETE FROM users WHERE username = 'dup-check'");
+    }
+}
@@ -0,0 +1,48 @@
+package com.pahanaedu.billingapp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the full application (embedded server on a random port, its own H2 database) and fails
+ * when it takes longer than the budget, naming the slowest startup steps. Override the budget on
+ * slow machines with -Dstartup.budget-ms=...
+ */
+public class StartupTimeTest {
+
+    private static final long BUDGET_MS = Long.getLong("startup.budget-ms", 20_000);
+
+    @Test
+    public void testApplicationStartsWithinBudget() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(10_000);
+        long started = System.nanoTime();
+        // command-line args: they replace the mysql profile set in application.properties and
+        // outrank the profile's datasource URL
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BillingappApplication.class)
+                .applicationStartup(startup)
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:startup_time;DB_CLOSE_DELAY=-1;MODE=MySQL;IGNORECASE=TRUE")) {
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            assertTrue(context.isActive());
+            assertTrue(elapsedMs <= BUDGET_MS, "Startup took " + elapsedMs + " ms, budget " + BUDGET_MS
+                    + " ms. Slowest steps:\n" + slowestSteps(startup.getBufferedTimeline()));
+        }
+    }
+
+    private static String slowestSteps(StartupTimeline timeline) {
+        return timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(10)
+                .map(e -> String.format("%6d ms  %s", e.getDuration().toMillis(), e.getStartupStep().getName()))
+                .collect(Collectors.joining("\n"));
+    }
+}